@@ -0,0 +1,50 @@
+package com.example.hospital.config;
+
+import com.example.hospital.service.WeeklyScheduleService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Every cache is bounded, expires its entries and records hit/miss statistics.
+// Only the caches declared here exist; an unknown cache name fails instead of growing a new map.
+@Configuration
+public class CacheConfig {
+
+    public static final String PATIENT_DASHBOARD = "patientDashboard";
+    public static final String DOCTOR_DASHBOARD = "doctorDashboard";
+    public static final String DOCTORS = "doctors";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${caches.dashboard.max-size:10000}") long dashboardMaxSize,
+            @Value("${caches.dashboard.ttl-seconds:300}") long dashboardTtlSeconds,
+            @Value("${caches.doctors.ttl-seconds:600}") long doctorsTtlSeconds,
+            @Value("${caches.weekly-schedules.max-size:5000}") long weeklySchedulesMaxSize
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of());
+
+        cacheManager.registerCustomCache(PATIENT_DASHBOARD,
+                bounded(dashboardMaxSize).expireAfterWrite(Duration.ofSeconds(dashboardTtlSeconds)).build());
+        cacheManager.registerCustomCache(DOCTOR_DASHBOARD,
+                bounded(dashboardMaxSize).expireAfterWrite(Duration.ofSeconds(dashboardTtlSeconds)).build());
+        // A single entry: the full doctor list
+        cacheManager.registerCustomCache(DOCTORS,
+                bounded(10).expireAfterWrite(Duration.ofSeconds(doctorsTtlSeconds)).build());
+        // Evicted explicitly whenever a doctor's availability changes, so no TTL
+        cacheManager.registerCustomCache(WeeklyScheduleService.CACHE_NAME,
+                bounded(weeklySchedulesMaxSize).build());
+
+        return cacheManager;
+    }
+
+    private static Caffeine<Object, Object> bounded(long maxSize) {
+        return Caffeine.newBuilder().maximumSize(maxSize).recordStats();
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.hospital.controller;
 
 import com.example.hospital.dto.AppointmentRequest;
+import com.example.hospital.dto.BulkAppointmentRequest;
+import com.example.hospital.dto.BulkAppointmentResponse;
 import com.example.hospital.model.Appointment;
 import com.example.hospital.model.AppointmentStatus;
 import com.example.hospital.service.AppointmentService;
+import com.example.hospital.service.BulkAppointmentService;
+import com.example.hospital.service.IdempotencyStore;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -13,36 +17,52 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/appointments")
 @RequiredArgsConstructor
 public class AppointmentController {
 
+    private static final String IDEMPOTENCY_HEADER = "Idempotency-Key";
+
     private final AppointmentService appointmentService;
+    private final BulkAppointmentService bulkAppointmentService;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_PATIENT')")
     public Appointment bookAppointment(
             @Valid @RequestBody AppointmentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
             Authentication authentication
     ) {
-        return appointmentService.bookAppointment(
-                request,
-                authentication.getName()
-        );
+        return idempotent("book", idempotencyKey, authentication, request, () ->
+                appointmentService.bookAppointment(
+                        request,
+                        authentication.getName()
+                ));
+    }
+
+    // Referral imports: many patients in one request
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public BulkAppointmentResponse bookAppointments(@Valid @RequestBody BulkAppointmentRequest request) {
+        return bulkAppointmentService.bookAll(request.getAppointments());
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_PATIENT')")
     public Appointment cancelAppointment(
             @PathVariable Long id,
+            @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
             Authentication authentication
     ) {
-        return appointmentService.cancelAppointment(
-                id,
-                authentication.getName()
-        );
+        return idempotent("cancel", idempotencyKey, authentication, id, () ->
+                appointmentService.cancelAppointment(
+                        id,
+                        authentication.getName()
+                ));
     }
 
     @GetMapping("/doctor/{doctorId}")
@@ -68,13 +88,34 @@ public class AppointmentController {
     public Appointment rescheduleAppointment(
             @PathVariable Long id,
             @Valid @RequestBody com.example.hospital.dto.RescheduleAppointmentRequest request,
+            @RequestHeader(value = IDEMPOTENCY_HEADER, required = false) String idempotencyKey,
             Authentication authentication
     ) {
-        return appointmentService.rescheduleAppointment(
-                id,
-                authentication.getName(),
-                request.getNewAppointmentDate(),
-                request.getNewAppointmentTime()
+        return idempotent("reschedule", idempotencyKey, authentication, id + ":" + request, () ->
+                appointmentService.rescheduleAppointment(
+                        id,
+                        authentication.getName(),
+                        request.getNewAppointmentDate(),
+                        request.getNewAppointmentTime()
+                ));
+    }
+
+    // Mobile clients retry on timeouts; with an Idempotency-Key the retry replays the first result
+    private Appointment idempotent(
+            String operation,
+            String idempotencyKey,
+            Authentication authentication,
+            Object fingerprint,
+            Supplier<Appointment> action
+    ) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        return idempotencyStore.execute(
+                operation + ":" + authentication.getName(),
+                idempotencyKey,
+                fingerprint,
+                action
         );
     }
 
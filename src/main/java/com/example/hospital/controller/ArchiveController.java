@@ -0,0 +1,71 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.dto.ArchivalRunResponse;
+import com.example.hospital.model.AppointmentArchive;
+import com.example.hospital.model.NotificationArchive;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.UserRepository;
+import com.example.hospital.service.ArchivalService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Read path for archived rows, newest first; pass the last id back as ?beforeId= for the next page
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final ArchivalService archivalService;
+    private final UserRepository userRepository;
+
+    @GetMapping("/notifications")
+    public List<NotificationArchive> getMyArchivedNotifications(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        return archivalService.getArchivedNotifications(currentUser(authentication).getId(), beforeId, size);
+    }
+
+    @GetMapping("/appointments/my")
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public List<AppointmentArchive> getMyArchivedAppointments(
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        return archivalService.getArchivedAppointmentsForPatient(currentUser(authentication).getId(), beforeId, size);
+    }
+
+    @GetMapping("/appointments/doctor/{doctorId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_DOCTOR', 'ROLE_ADMIN')")
+    public List<AppointmentArchive> getDoctorArchivedAppointments(
+            @PathVariable Long doctorId,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return archivalService.getArchivedAppointmentsForDoctor(doctorId, beforeId, size);
+    }
+
+    // Runs the retention job now instead of waiting for the nightly schedule
+    @PostMapping("/run")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ArchivalRunResponse run() {
+        return archivalService.run();
+    }
+
+    @GetMapping("/last-run")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ArchivalRunResponse lastRun() {
+        return archivalService.lastRun();
+    }
+
+    private User currentUser(Authentication authentication) {
+        return userRepository.findByEmail(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+}
@@ -1,22 +1,44 @@
 package com.example.hospital.controller;
 
 import com.example.hospital.dto.AdminDashboardResponse;
+import com.example.hospital.dto.CacheStatsResponse;
 import com.example.hospital.dto.DoctorDashboardResponse;
+import com.example.hospital.dto.EmailPipelineStatsResponse;
+import com.example.hospital.dto.NotificationBufferStatsResponse;
+import com.example.hospital.dto.NotificationRetryStatsResponse;
 import com.example.hospital.dto.PatientDashboardResponse;
+import com.example.hospital.dto.TimeseriesGranularity;
+import com.example.hospital.dto.TimeseriesResponse;
+import com.example.hospital.service.AppointmentRollupService;
+import com.example.hospital.service.DashboardCacheService;
 import com.example.hospital.service.DashboardService;
+import com.example.hospital.service.EmailDeliveryPipeline;
+import com.example.hospital.service.NotificationRetryService;
+import com.example.hospital.service.NotificationWriteBuffer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/dashboard")
 @RequiredArgsConstructor
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final EmailDeliveryPipeline emailDeliveryPipeline;
+    private final NotificationWriteBuffer notificationWriteBuffer;
+    private final NotificationRetryService notificationRetryService;
+    private final DashboardCacheService dashboardCacheService;
+    private final AppointmentRollupService appointmentRollupService;
 
     @GetMapping("/patient")
     @PreAuthorize("hasAuthority('ROLE_PATIENT')")
@@ -35,4 +57,53 @@ public class DashboardController {
     public AdminDashboardResponse getAdminDashboard() {
         return dashboardService.getAdminDashboard();
     }
+
+    // Queue depth, throughput and SMTP send latency of the email pipeline
+    @GetMapping("/admin/email-pipeline")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public EmailPipelineStatsResponse getEmailPipelineStats() {
+        return emailDeliveryPipeline.stats();
+    }
+
+    // Buffered notification rows and flush latency of the write-behind buffer
+    @GetMapping("/admin/notification-buffer")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public NotificationBufferStatsResponse getNotificationBufferStats() {
+        return notificationWriteBuffer.stats();
+    }
+
+    // Notifications waiting for a retry, dead letters and the retry rate limiter
+    @GetMapping("/admin/notification-retry")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public NotificationRetryStatsResponse getNotificationRetryStats() {
+        return notificationRetryService.stats();
+    }
+
+    // Size, hit rate and evictions per cache, for tuning caches.* limits
+    @GetMapping("/admin/caches")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public List<CacheStatsResponse> getCacheStats() {
+        return dashboardCacheService.stats();
+    }
+
+    // Appointments per day, week or month by specialization and status, read from the daily rollup
+    @GetMapping("/analytics/timeseries")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public TimeseriesResponse getTimeseries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") TimeseriesGranularity granularity
+    ) {
+        return appointmentRollupService.getTimeseries(from, to, granularity);
+    }
+
+    // Recounts the rollup for a date range from the live and archived appointments
+    @PostMapping("/analytics/rebuild")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public int rebuildRollup(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return appointmentRollupService.rebuild(from, to);
+    }
 }
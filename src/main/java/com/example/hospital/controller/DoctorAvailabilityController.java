@@ -1,11 +1,14 @@
 package com.example.hospital.controller;
 
 import com.example.hospital.dto.AvailableSlotResponse;
+import com.example.hospital.dto.DailySlotsResponse;
 import com.example.hospital.dto.DoctorAvailabilityRequest;
 import com.example.hospital.dto.DoctorLeaveRequest;
+import com.example.hospital.dto.FirstAvailableSlotResponse;
 import com.example.hospital.model.DoctorAvailability;
 import com.example.hospital.model.DoctorLeave;
 import com.example.hospital.service.DoctorAvailabilityService;
+import com.example.hospital.service.SlotSearchService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,6 +24,7 @@ import java.util.List;
 public class DoctorAvailabilityController {
 
     private final DoctorAvailabilityService availabilityService;
+    private final SlotSearchService slotSearchService;
 
     @PostMapping("/{doctorId}/availability")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_DOCTOR')")
@@ -57,4 +61,28 @@ public class DoctorAvailabilityController {
     ) {
         return availabilityService.getAvailableSlots(doctorId, date);
     }
+
+    @GetMapping(value = "/{doctorId}/available-slots", params = {"from", "to"})
+    public List<DailySlotsResponse> getAvailableSlotsForRange(
+            @PathVariable Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return availabilityService.getAvailableSlots(doctorId, from, to);
+    }
+
+    @GetMapping("/first-available")
+    public List<FirstAvailableSlotResponse> findFirstAvailable(
+            @RequestParam String specialization,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(defaultValue = "14") int days,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        return slotSearchService.findEarliestSlots(
+                specialization,
+                from != null ? from : LocalDate.now(),
+                days,
+                limit
+        );
+    }
 }
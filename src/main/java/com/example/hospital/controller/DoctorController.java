@@ -1,5 +1,7 @@
 package com.example.hospital.controller;
 
+import com.example.hospital.dto.DoctorAccountRequest;
+import com.example.hospital.dto.DoctorAccountResponse;
 import com.example.hospital.model.Doctor;
 import com.example.hospital.service.DoctorService;
 import jakarta.validation.Valid;
@@ -25,6 +27,16 @@ public class DoctorController {
         return doctorService.addDoctor(doctor);
     }
 
+    // ADMIN ONLY: the account this doctor logs in with (its doctor dashboard)
+    @PutMapping("/{id}/account")
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public DoctorAccountResponse linkAccount(
+            @PathVariable Long id,
+            @Valid @RequestBody DoctorAccountRequest request
+    ) {
+        return doctorService.linkAccount(id, request.getEmail());
+    }
+
     // ANY AUTHENTICATED USER
     @GetMapping
     public List<Doctor> getDoctors() {
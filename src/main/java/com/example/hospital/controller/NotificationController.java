@@ -1,16 +1,14 @@
 package com.example.hospital.controller;
 
-import com.example.hospital.model.Notification;
+import com.example.hospital.dto.NotificationPageResponse;
 import com.example.hospital.model.User;
 import com.example.hospital.repository.UserRepository;
 import com.example.hospital.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -20,17 +18,40 @@ public class NotificationController {
     private final NotificationService notificationService;
     private final UserRepository userRepository;
 
+    // Newest first; follow nextCursor for older notifications
     @GetMapping
-    public List<Notification> getMyNotifications(Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationService.getUserNotifications(user);
+    public NotificationPageResponse getMyNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication
+    ) {
+        return notificationService.getInbox(currentUser(authentication), cursor, size);
+    }
+
+    // Pushes new notifications and unread counts as they happen, with a heartbeat comment
+    // every 25 seconds; EventSource clients can pass the JWT as ?access_token=
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return notificationService.openStream(currentUser(authentication));
     }
 
     @GetMapping("/unread-count")
     public long getUnreadCount(Authentication authentication) {
-        User user = userRepository.findByEmail(authentication.getName())
+        return notificationService.getUnreadNotificationCount(currentUser(authentication));
+    }
+
+    @PutMapping("/{id}/read")
+    public void markRead(@PathVariable Long id, Authentication authentication) {
+        notificationService.markRead(currentUser(authentication), id);
+    }
+
+    @PutMapping("/read-all")
+    public void markAllRead(Authentication authentication) {
+        notificationService.markAllRead(currentUser(authentication));
+    }
+
+    private User currentUser(Authentication authentication) {
+        return userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return notificationService.getUnreadNotificationCount(user);
     }
 }
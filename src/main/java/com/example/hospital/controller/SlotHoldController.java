@@ -0,0 +1,51 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.dto.SlotHoldRequest;
+import com.example.hospital.dto.SlotHoldResponse;
+import com.example.hospital.service.SlotHold;
+import com.example.hospital.service.SlotHoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/appointments/holds")
+@RequiredArgsConstructor
+public class SlotHoldController {
+
+    private final SlotHoldService slotHoldService;
+
+    // Reserve a slot while the patient completes the booking form
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public SlotHoldResponse holdSlot(
+            @Valid @RequestBody SlotHoldRequest request,
+            Authentication authentication
+    ) {
+        SlotHold hold = slotHoldService.hold(
+                request.getDoctorId(),
+                request.getAppointmentDate(),
+                request.getAppointmentTime(),
+                authentication.getName()
+        );
+
+        return SlotHoldResponse.builder()
+                .holdId(hold.holdId())
+                .doctorId(hold.doctorId())
+                .appointmentDate(hold.date())
+                .appointmentTime(hold.time())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+
+    @DeleteMapping("/{holdId}")
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public void releaseHold(
+            @PathVariable String holdId,
+            Authentication authentication
+    ) {
+        slotHoldService.release(holdId, authentication.getName());
+    }
+}
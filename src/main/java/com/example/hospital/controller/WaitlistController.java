@@ -0,0 +1,48 @@
+package com.example.hospital.controller;
+
+import com.example.hospital.dto.WaitlistEntryResponse;
+import com.example.hospital.dto.WaitlistRequest;
+import com.example.hospital.service.WaitlistService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/waitlist")
+@RequiredArgsConstructor
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    // Join the queue for a fully booked day; a freed slot is offered as a hold and notified
+    @PostMapping
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public WaitlistEntryResponse join(
+            @Valid @RequestBody WaitlistRequest request,
+            Authentication authentication
+    ) {
+        return waitlistService.join(request.getDoctorId(), request.getDate(), authentication.getName());
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public void leave(
+            @RequestParam Long doctorId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            Authentication authentication
+    ) {
+        waitlistService.leave(doctorId, date, authentication.getName());
+    }
+
+    @GetMapping("/my")
+    @PreAuthorize("hasAuthority('ROLE_PATIENT')")
+    public List<WaitlistEntryResponse> myEntries(Authentication authentication) {
+        return waitlistService.entriesFor(authentication.getName());
+    }
+}
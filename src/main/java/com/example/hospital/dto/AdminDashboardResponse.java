@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -24,4 +25,6 @@ public class AdminDashboardResponse {
     private List<Appointment> recentAppointments;
     private long thisMonthAppointments;
     private long lastMonthAppointments;
+    // Changes made on other nodes are only counted from the next reconciliation
+    private LocalDateTime reconciledAt;
 }
@@ -0,0 +1,20 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ArchivalRunResponse {
+
+    private LocalDateTime startedAt;
+    private LocalDateTime notificationCutoff;
+    private LocalDate appointmentCutoff;
+    private long notificationsArchived;
+    private long appointmentsArchived;
+    private long durationMillis;
+    private double rowsPerSecond;
+}
@@ -0,0 +1,26 @@
+package com.example.hospital.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class BulkAppointmentItem {
+
+    @NotBlank(message = "Patient email is required")
+    @Email
+    private String patientEmail;
+
+    @NotNull(message = "Doctor is required")
+    private Long doctorId;
+
+    @NotNull(message = "Appointment date is required")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Appointment time is required")
+    private LocalTime appointmentTime;
+}
@@ -0,0 +1,16 @@
+package com.example.hospital.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkAppointmentRequest {
+
+    @NotEmpty(message = "At least one appointment is required")
+    @Size(max = 5000, message = "A batch cannot contain more than 5000 appointments")
+    private List<@Valid BulkAppointmentItem> appointments;
+}
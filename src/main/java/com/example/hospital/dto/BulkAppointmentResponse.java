@@ -0,0 +1,19 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAppointmentResponse {
+    private int requested;
+    private int booked;
+    private int rejected;
+    private List<BulkAppointmentResult> results;
+}
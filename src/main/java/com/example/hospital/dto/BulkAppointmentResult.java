@@ -0,0 +1,17 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAppointmentResult {
+    private int index; // position in the request batch
+    private boolean booked;
+    private Long appointmentId;
+    private String message;
+}
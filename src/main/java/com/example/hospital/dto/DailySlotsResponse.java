@@ -0,0 +1,19 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySlotsResponse {
+    private LocalDate date;
+    private boolean onLeave;
+    private List<AvailableSlotResponse> slots;
+}
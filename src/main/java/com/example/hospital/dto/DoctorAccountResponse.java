@@ -0,0 +1,14 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class DoctorAccountResponse {
+
+    private Long doctorId;
+    private String doctorName;
+    private Long userId;
+    private String email;
+}
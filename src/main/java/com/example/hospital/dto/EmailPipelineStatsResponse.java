@@ -0,0 +1,20 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class EmailPipelineStatsResponse {
+
+    private int queueDepth;
+    private int queueCapacity;
+    private int workers;
+    private long sent;
+    private long failed;
+    private long rejected;
+    private long batches;
+    private double averageBatchSize;
+    private double averageSendMillis;
+    private long maxSendMillis;
+}
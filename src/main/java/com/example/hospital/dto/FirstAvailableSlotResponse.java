@@ -0,0 +1,21 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FirstAvailableSlotResponse {
+    private Long doctorId;
+    private String doctorName;
+    private String specialization;
+    private LocalDate date;
+    private LocalTime slotTime;
+}
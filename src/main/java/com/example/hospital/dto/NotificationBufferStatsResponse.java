@@ -0,0 +1,19 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class NotificationBufferStatsResponse {
+
+    private int buffered;
+    private long written;
+    private long flushes;
+    private long failedFlushes;
+    private double averageFlushMillis;
+    private long maxFlushMillis;
+    private LocalDateTime lastFlushAt;
+}
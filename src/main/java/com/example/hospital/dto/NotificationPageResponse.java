@@ -0,0 +1,17 @@
+package com.example.hospital.dto;
+
+import com.example.hospital.model.Notification;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class NotificationPageResponse {
+
+    private List<Notification> items;
+    // Pass back as ?cursor= to get the next page; null on the last page
+    private String nextCursor;
+    private long unreadCount;
+}
@@ -0,0 +1,19 @@
+package com.example.hospital.dto;
+
+import com.example.hospital.model.NotificationType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class NotificationPushMessage {
+
+    private Long id;
+    private NotificationType type;
+    private String subject;
+    private String message;
+    private LocalDateTime sentAt;
+    private Long relatedAppointmentId;
+}
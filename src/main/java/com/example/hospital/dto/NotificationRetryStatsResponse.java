@@ -0,0 +1,19 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class NotificationRetryStatsResponse {
+
+    private long awaitingRetry;
+    private long deadLettered;
+    private long retried;
+    private long recovered;
+    private long rateLimited;
+    private double availableTokens;
+    private LocalDateTime lastRunAt;
+}
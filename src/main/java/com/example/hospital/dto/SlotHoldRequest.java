@@ -0,0 +1,20 @@
+package com.example.hospital.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+public class SlotHoldRequest {
+
+    @NotNull(message = "Doctor is required")
+    private Long doctorId;
+
+    @NotNull(message = "Appointment date is required")
+    private LocalDate appointmentDate;
+
+    @NotNull(message = "Appointment time is required")
+    private LocalTime appointmentTime;
+}
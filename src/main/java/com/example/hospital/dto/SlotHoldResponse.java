@@ -0,0 +1,22 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldResponse {
+    private String holdId;
+    private Long doctorId;
+    private LocalDate appointmentDate;
+    private LocalTime appointmentTime;
+    private Instant expiresAt;
+}
@@ -0,0 +1,7 @@
+package com.example.hospital.dto;
+
+public enum TimeseriesGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,20 @@
+package com.example.hospital.dto;
+
+import com.example.hospital.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeseriesPoint {
+    private LocalDate periodStart; // First day of the day, ISO week or month
+    private String specialization;
+    private AppointmentStatus status;
+    private long count;
+}
@@ -0,0 +1,20 @@
+package com.example.hospital.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeseriesResponse {
+    private LocalDate from;
+    private LocalDate to;
+    private TimeseriesGranularity granularity;
+    private List<TimeseriesPoint> points;
+}
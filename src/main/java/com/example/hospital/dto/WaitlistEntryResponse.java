@@ -0,0 +1,17 @@
+package com.example.hospital.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+public class WaitlistEntryResponse {
+
+    private Long doctorId;
+    private LocalDate date;
+    private int position;
+    private Instant joinedAt;
+}
@@ -0,0 +1,16 @@
+package com.example.hospital.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+public class WaitlistRequest {
+
+    @NotNull(message = "Doctor is required")
+    private Long doctorId;
+
+    @NotNull(message = "Date is required")
+    private LocalDate date;
+}
@@ -0,0 +1,34 @@
+package com.example.hospital.event;
+
+import com.example.hospital.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Published by AppointmentService after a booking change has been saved.
+// For RESCHEDULED the previous date and time are the slot that was freed.
+public record AppointmentEvent(
+        Type type,
+        Appointment appointment,
+        LocalDate previousDate,
+        LocalTime previousTime
+) {
+
+    public enum Type {
+        BOOKED,
+        CANCELLED,
+        RESCHEDULED
+    }
+
+    public static AppointmentEvent booked(Appointment appointment) {
+        return new AppointmentEvent(Type.BOOKED, appointment, null, null);
+    }
+
+    public static AppointmentEvent cancelled(Appointment appointment) {
+        return new AppointmentEvent(Type.CANCELLED, appointment, null, null);
+    }
+
+    public static AppointmentEvent rescheduled(Appointment appointment, LocalDate previousDate, LocalTime previousTime) {
+        return new AppointmentEvent(Type.RESCHEDULED, appointment, previousDate, previousTime);
+    }
+}
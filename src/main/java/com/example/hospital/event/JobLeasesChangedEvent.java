@@ -0,0 +1,7 @@
+package com.example.hospital.event;
+
+import java.util.Set;
+
+// This node gained or lost partitions of a leased job
+public record JobLeasesChangedEvent(String jobName, Set<Integer> ownedPartitions) {
+}
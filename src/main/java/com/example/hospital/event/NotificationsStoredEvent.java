@@ -0,0 +1,9 @@
+package com.example.hospital.event;
+
+import com.example.hospital.model.Notification;
+
+import java.util.List;
+
+// A batch of notifications has been committed together with the users' unread counters
+public record NotificationsStoredEvent(List<Notification> notifications) {
+}
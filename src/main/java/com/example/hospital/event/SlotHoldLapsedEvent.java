@@ -0,0 +1,7 @@
+package com.example.hospital.event;
+
+import com.example.hospital.service.SlotHold;
+
+// A hold ended without a booking: it expired or its patient released it
+public record SlotHoldLapsedEvent(SlotHold hold) {
+}
@@ -0,0 +1,6 @@
+package com.example.hospital.event;
+
+import com.example.hospital.model.User;
+
+public record UserRegisteredEvent(User user) {
+}
@@ -14,8 +14,10 @@ import java.time.LocalTime;
 @Builder
 public class Appointment {
 
+    // Sequence with a pooled allocation so bulk inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
     // Patient (User)
@@ -36,4 +38,8 @@ public class Appointment {
     private AppointmentStatus status;
 
     private int rescheduleCount = 0;
+
+    // Optimistic locking: concurrent cancel/reschedule of the same appointment fails instead of overwriting
+    @Version
+    private long version;
 }
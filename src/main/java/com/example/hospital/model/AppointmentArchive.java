@@ -0,0 +1,42 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Archived completed or cancelled appointment, written only by the archival job's insert-select
+@Entity
+@Immutable
+@Table(name = "appointment_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "patient_id", nullable = false)
+    private Long patientId;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    private LocalDate appointmentDate;
+
+    private LocalTime appointmentTime;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus status;
+
+    private int rescheduleCount;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,40 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Number of appointments one doctor has on one day in one status
+@Entity
+@Table(
+        name = "appointment_daily_rollup",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_appointment_daily_rollup_date_doctor_status",
+                columnNames = {"appointment_date", "doctor_id", "status"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate appointmentDate;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(nullable = false)
+    private long appointmentCount;
+}
@@ -0,0 +1,23 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Heartbeat of a running application node, used to size each node's share of job partitions
+@Entity
+@Table(name = "cluster_node")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClusterNode {
+
+    @Id
+    private String nodeId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastSeen;
+}
@@ -1,5 +1,6 @@
 package com.example.hospital.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -32,4 +33,10 @@ public class Doctor {
     private int experience; // years
 
     private boolean available;
+
+    // Account this doctor logs in with; linked by an admin and never part of the API payload
+    @JsonIgnore
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", unique = true)
+    private User user;
 }
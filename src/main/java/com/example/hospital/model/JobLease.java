@@ -0,0 +1,38 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Time-bounded ownership of one partition of a scheduled job; an expired lease is free to take
+@Entity
+@Table(
+        name = "job_lease",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_job_lease_job_partition",
+                columnNames = {"job_name", "partition_no"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false)
+    private String jobName;
+
+    @Column(name = "partition_no", nullable = false)
+    private int partitionNo;
+
+    private String owner;
+
+    @Column(nullable = false)
+    private LocalDateTime leaseUntil;
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,4 +36,17 @@ public class Notification {
     private NotificationStatus status;
 
     private Long relatedAppointmentId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    private LocalDateTime readAt;
+
+    // Delivery attempts so far and when the retry worker should try again (FAILED only)
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
 }
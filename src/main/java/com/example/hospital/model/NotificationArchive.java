@@ -0,0 +1,48 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Archived notification, written only by the archival job's insert-select
+@Entity
+@Immutable
+@Table(name = "notification_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationType type;
+
+    private String subject;
+
+    @Column(length = 1000)
+    private String message;
+
+    private LocalDateTime sentAt;
+
+    @Enumerated(EnumType.STRING)
+    private NotificationStatus status;
+
+    private Long relatedAppointmentId;
+
+    @Column(name = "is_read", nullable = false)
+    private boolean read;
+
+    private LocalDateTime readAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
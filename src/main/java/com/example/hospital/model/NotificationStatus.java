@@ -3,5 +3,7 @@ package com.example.hospital.model;
 public enum NotificationStatus {
     PENDING,
     SENT,
-    FAILED
+    FAILED,
+    // Gave up after the last retry; kept for inspection only
+    DEAD_LETTER
 }
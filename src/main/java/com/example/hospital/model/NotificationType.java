@@ -6,6 +6,7 @@ public enum NotificationType {
     APPOINTMENT_REMINDER_1H,
     APPOINTMENT_CANCELLED,
     APPOINTMENT_RESCHEDULED,
+    WAITLIST_OFFER,
     WELCOME,
     PASSWORD_RESET
 }
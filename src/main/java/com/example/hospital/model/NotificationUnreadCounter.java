@@ -0,0 +1,21 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Unread notification count per user, maintained alongside the notification rows
+@Entity
+@Table(name = "notification_unread_counter")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationUnreadCounter {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long unreadCount;
+}
@@ -0,0 +1,37 @@
+package com.example.hospital.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per reminder that has gone out; the unique key makes claiming a reminder atomic
+@Entity
+@Table(
+        name = "reminder_ledger",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_reminder_ledger_appointment_type",
+                columnNames = {"appointment_id", "type"}
+        )
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReminderLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @Column(nullable = false)
+    private LocalDateTime sentAt;
+}
@@ -0,0 +1,36 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.AppointmentArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AppointmentArchiveRepository extends JpaRepository<AppointmentArchive, Long> {
+
+    // Copies one chunk of live rows in a single statement; the caller deletes them afterwards
+    @Modifying
+    @Query(value = "insert into appointment_archive (id, patient_id, doctor_id, appointment_date, " +
+            "appointment_time, status, reschedule_count, archived_at) " +
+            "select id, patient_id, doctor_id, appointment_date, appointment_time, status, reschedule_count, :archivedAt " +
+            "from appointment where id in (:ids)", nativeQuery = true)
+    int copyFromLive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    List<AppointmentArchive> findByPatientIdOrderByIdDesc(Long patientId, Pageable pageable);
+
+    List<AppointmentArchive> findByPatientIdAndIdLessThanOrderByIdDesc(Long patientId, Long beforeId, Pageable pageable);
+
+    List<AppointmentArchive> findByDoctorIdOrderByIdDesc(Long doctorId, Pageable pageable);
+
+    List<AppointmentArchive> findByDoctorIdAndIdLessThanOrderByIdDesc(Long doctorId, Long beforeId, Pageable pageable);
+
+    @Query("select a.status as status, count(a) as count from AppointmentArchive a " +
+            "where a.doctorId = :doctorId and a.appointmentDate = :date and a.status is not null group by a.status")
+    List<StatusCountView> countForDoctorDayGroupedByStatus(@Param("date") LocalDate date, @Param("doctorId") Long doctorId);
+}
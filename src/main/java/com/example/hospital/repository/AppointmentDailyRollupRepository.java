@@ -0,0 +1,43 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.AppointmentDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AppointmentDailyRollupRepository extends JpaRepository<AppointmentDailyRollup, Long> {
+
+    @Modifying
+    @Query("delete from AppointmentDailyRollup r where r.appointmentDate = :date and r.doctorId = :doctorId")
+    int deleteForDoctorDay(@Param("date") LocalDate date, @Param("doctorId") Long doctorId);
+
+    // Per date, specialization and status over a date range; at most dates x specializations x statuses rows
+    @Query("select r.appointmentDate as appointmentDate, d.specialization as specialization, r.status as status, " +
+            "sum(r.appointmentCount) as count " +
+            "from AppointmentDailyRollup r join Doctor d on d.id = r.doctorId " +
+            "where r.appointmentDate between :from and :to " +
+            "group by r.appointmentDate, d.specialization, r.status " +
+            "order by r.appointmentDate")
+    List<RollupRowView> sumByDateSpecializationAndStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from AppointmentDailyRollup r where r.appointmentDate between :from and :to")
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recounts a date range from the live and the archived appointments
+    @Modifying
+    @Query(value = "insert into appointment_daily_rollup (appointment_date, doctor_id, status, appointment_count) " +
+            "select appointment_date, doctor_id, status, count(*) from (" +
+            "select appointment_date, doctor_id, status from appointment " +
+            "where appointment_date between :from and :to " +
+            "union all " +
+            "select appointment_date, doctor_id, status from appointment_archive " +
+            "where appointment_date between :from and :to" +
+            ") history where status is not null " +
+            "group by appointment_date, doctor_id, status", nativeQuery = true)
+    int insertCountedBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -5,9 +5,13 @@ import com.example.hospital.model.AppointmentStatus;
 import com.example.hospital.model.Doctor;
 import com.example.hospital.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -33,17 +37,75 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
             AppointmentStatus status
     );
 
+    // Slot occupancy: booked times for one doctor over a date range, in a single query
+    @Query("select a.appointmentDate as appointmentDate, a.appointmentTime as appointmentTime " +
+            "from Appointment a where a.doctor.id = :doctorId " +
+            "and a.appointmentDate between :startDate and :endDate and a.status = :status")
+    List<BookedSlotView> findSlotsByDoctorAndDateRange(
+            @Param("doctorId") Long doctorId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") AppointmentStatus status
+    );
+
+    // Bulk booking: every booked slot of a set of doctors over a date range, in a single query
+    @Query("select a.doctor.id as doctorId, a.patient.id as patientId, " +
+            "a.appointmentDate as appointmentDate, a.appointmentTime as appointmentTime " +
+            "from Appointment a where a.doctor.id in :doctorIds " +
+            "and a.appointmentDate between :startDate and :endDate and a.status = :status")
+    List<BookedAppointmentView> findBookedByDoctorsAndDateRange(
+            @Param("doctorIds") Collection<Long> doctorIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("status") AppointmentStatus status
+    );
+
+    // Reminder jobs: one keyset page of appointments in [start, end), ordered by id, limited to
+    // the doctor partitions (doctor id mod partitions) this node holds a lease on.
+    // Patient and doctor are fetched in the same query since every reminder needs both.
+    @Query("select a from Appointment a join fetch a.patient join fetch a.doctor " +
+            "where a.status = :status and a.id > :afterId " +
+            "and mod(a.doctor.id, :partitions) in :partitionIds " +
+            "and (a.appointmentDate > :startDate " +
+            "or (a.appointmentDate = :startDate and a.appointmentTime >= :startTime)) " +
+            "and (a.appointmentDate < :endDate " +
+            "or (a.appointmentDate = :endDate and a.appointmentTime < :endTime)) " +
+            "order by a.id")
+    List<Appointment> findPageInWindow(
+            @Param("status") AppointmentStatus status,
+            @Param("startDate") LocalDate startDate,
+            @Param("startTime") LocalTime startTime,
+            @Param("endDate") LocalDate endDate,
+            @Param("endTime") LocalTime endTime,
+            @Param("afterId") Long afterId,
+            @Param("partitions") int partitions,
+            @Param("partitionIds") Collection<Integer> partitionIds,
+            Pageable pageable
+    );
+
     List<Appointment> findByDoctorId(Long doctorId);
     List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
     Page<Appointment> findAll(Pageable pageable);
     long countByStatus(AppointmentStatus status);
 
     // Dashboard queries
-    List<Appointment> findByPatientOrderByAppointmentDateDesc(User patient);
     List<Appointment> findByPatientAndStatusOrderByAppointmentDateDesc(User patient, AppointmentStatus status);
-    List<Appointment> findByPatientAndAppointmentDateAfterOrderByAppointmentDateAsc(User patient, LocalDate date);
-    long countByPatient(User patient);
-    long countByPatientAndStatus(User patient, AppointmentStatus status);
+
+    // Patient dashboard: each is a single query on idx_appointment_patient_date, bounded in size
+    @Query("select a.status as status, count(a) as count from Appointment a " +
+            "where a.patient = :patient group by a.status")
+    List<StatusCountView> countByPatientGroupedByStatus(@Param("patient") User patient);
+
+    long countByPatientAndAppointmentDateAfter(User patient, LocalDate date);
+
+    List<Appointment> findTop5ByPatientAndAppointmentDateAfterOrderByAppointmentDateAscAppointmentTimeAsc(
+            User patient,
+            LocalDate date
+    );
+
+    @Query("select a.doctor.name as doctorName, count(a) as count from Appointment a " +
+            "where a.patient = :patient group by a.doctor.name order by count(a) desc, a.doctor.name")
+    List<DoctorCountView> findMostVisitedDoctors(@Param("patient") User patient, Pageable pageable);
 
     List<Appointment> findByDoctorAndAppointmentDateOrderByAppointmentTimeAsc(Doctor doctor, LocalDate date);
     List<Appointment> findByDoctorAndAppointmentDateAfterOrderByAppointmentDateAsc(Doctor doctor, LocalDate date);
@@ -53,5 +115,31 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Admin analytics
     long countByAppointmentDateBetween(LocalDate startDate, LocalDate endDate);
     List<Appointment> findTop10ByOrderByIdDesc();
+
+    @Query("select a.status as status, count(a) as count from Appointment a group by a.status")
+    List<StatusCountView> countGroupedByStatus();
+
+    @Query("select a.status as status, count(a) as count from Appointment a " +
+            "where a.doctor.id = :doctorId and a.appointmentDate = :date and a.status is not null group by a.status")
+    List<StatusCountView> countForDoctorDayGroupedByStatus(@Param("date") LocalDate date, @Param("doctorId") Long doctorId);
+
+    @Query("select year(a.appointmentDate) as year, month(a.appointmentDate) as month, count(a) as count " +
+            "from Appointment a where a.appointmentDate is not null " +
+            "group by year(a.appointmentDate), month(a.appointmentDate)")
+    List<MonthCountView> countGroupedByMonth();
+
+    // Archival: the next chunk of finished appointments dated before the cutoff, walking the table by id
+    @Query("select a.id from Appointment a " +
+            "where a.status in :statuses and a.appointmentDate < :cutoff and a.id > :afterId order by a.id")
+    List<Long> findIdsFinishedBefore(
+            @Param("statuses") Collection<AppointmentStatus> statuses,
+            @Param("cutoff") LocalDate cutoff,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("delete from Appointment a where a.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
 
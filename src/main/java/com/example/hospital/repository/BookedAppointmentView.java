@@ -0,0 +1,11 @@
+package com.example.hospital.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface BookedAppointmentView {
+    Long getDoctorId();
+    Long getPatientId();
+    LocalDate getAppointmentDate();
+    LocalTime getAppointmentTime();
+}
@@ -0,0 +1,9 @@
+package com.example.hospital.repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public interface BookedSlotView {
+    LocalDate getAppointmentDate();
+    LocalTime getAppointmentTime();
+}
@@ -0,0 +1,25 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.ClusterNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ClusterNodeRepository extends JpaRepository<ClusterNode, String> {
+
+    long countByLastSeenAfter(LocalDateTime since);
+
+    @Transactional
+    @Modifying
+    @Query("update ClusterNode n set n.lastSeen = :now where n.nodeId = :nodeId")
+    int heartbeat(@Param("nodeId") String nodeId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClusterNode n where n.lastSeen < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
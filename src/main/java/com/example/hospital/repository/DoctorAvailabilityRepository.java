@@ -5,10 +5,12 @@ import com.example.hospital.model.Doctor;
 import com.example.hospital.model.DoctorAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface DoctorAvailabilityRepository extends JpaRepository<DoctorAvailability, Long> {
     List<DoctorAvailability> findByDoctorAndIsActiveTrue(Doctor doctor);
+    List<DoctorAvailability> findByDoctorInAndIsActiveTrue(Collection<Doctor> doctors);
     List<DoctorAvailability> findByDoctorAndDayOfWeekAndIsActiveTrue(Doctor doctor, DayOfWeek dayOfWeek);
     boolean existsByDoctorAndDayOfWeek(Doctor doctor, DayOfWeek dayOfWeek);
 }
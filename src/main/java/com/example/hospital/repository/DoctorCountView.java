@@ -0,0 +1,6 @@
+package com.example.hospital.repository;
+
+public interface DoctorCountView {
+    String getDoctorName();
+    long getCount();
+}
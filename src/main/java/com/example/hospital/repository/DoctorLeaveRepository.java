@@ -5,10 +5,12 @@ import com.example.hospital.model.DoctorLeave;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 public interface DoctorLeaveRepository extends JpaRepository<DoctorLeave, Long> {
     List<DoctorLeave> findByDoctor(Doctor doctor);
     boolean existsByDoctorAndLeaveDate(Doctor doctor, LocalDate leaveDate);
     List<DoctorLeave> findByDoctorAndLeaveDateBetween(Doctor doctor, LocalDate startDate, LocalDate endDate);
+    List<DoctorLeave> findByDoctorInAndLeaveDateBetween(Collection<Doctor> doctors, LocalDate startDate, LocalDate endDate);
 }
@@ -2,14 +2,28 @@ package com.example.hospital.repository;
 
 import com.example.hospital.model.Doctor;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Page<Doctor> findAll(Pageable pageable);
     List<Doctor> findBySpecializationIgnoreCase(String specialization);
     boolean existsByNameIgnoreCase(String name);
     boolean existsByNameIgnoreCaseAndSpecializationIgnoreCase(String name, String specialization);
+
+    // Single lookup through the unique user_id index and the unique users.email
+    Optional<Doctor> findByUserEmail(String email);
+
+    Optional<Doctor> findByUserId(Long userId);
+
+    @Query("select u.email from Doctor d join d.user u where d.id = :doctorId")
+    Optional<String> findAccountEmail(@Param("doctorId") Long doctorId);
+
+    @Query("select d.specialization as specialization, count(d) as count from Doctor d group by d.specialization")
+    List<SpecializationCountView> countGroupedBySpecialization();
 }
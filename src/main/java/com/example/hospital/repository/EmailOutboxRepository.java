@@ -0,0 +1,33 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.EmailOutbox;
+import com.example.hospital.model.NotificationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Lock timeout -2 is SKIP LOCKED: dispatchers on other nodes claim the next rows instead of waiting
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from EmailOutbox e where e.status = :status and e.nextAttemptAt <= :now order by e.nextAttemptAt, e.id")
+    List<EmailOutbox> claimBatch(
+            @Param("status") NotificationStatus status,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("delete from EmailOutbox e where e.status = :status and e.sentAt < :before")
+    int deleteSentBefore(@Param("status") NotificationStatus status, @Param("before") LocalDateTime before);
+}
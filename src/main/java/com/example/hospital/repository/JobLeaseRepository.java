@@ -0,0 +1,42 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JobLeaseRepository extends JpaRepository<JobLease, Long> {
+
+    List<JobLease> findByJobNameOrderByPartitionNo(String jobName);
+
+    // Takes or renews a lease in one conditional update: succeeds only if this node already
+    // owns the partition or the current lease has run out
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.owner = :owner, l.leaseUntil = :until " +
+            "where l.jobName = :jobName and l.partitionNo = :partitionNo " +
+            "and (l.owner = :owner or l.leaseUntil < :now)")
+    int tryAcquire(
+            @Param("jobName") String jobName,
+            @Param("partitionNo") int partitionNo,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now,
+            @Param("until") LocalDateTime until
+    );
+
+    @Transactional
+    @Modifying
+    @Query("update JobLease l set l.owner = null, l.leaseUntil = :now " +
+            "where l.jobName = :jobName and l.partitionNo = :partitionNo and l.owner = :owner")
+    int release(
+            @Param("jobName") String jobName,
+            @Param("partitionNo") int partitionNo,
+            @Param("owner") String owner,
+            @Param("now") LocalDateTime now
+    );
+}
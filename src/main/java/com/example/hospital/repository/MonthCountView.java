@@ -0,0 +1,7 @@
+package com.example.hospital.repository;
+
+public interface MonthCountView {
+    int getYear();
+    int getMonth();
+    long getCount();
+}
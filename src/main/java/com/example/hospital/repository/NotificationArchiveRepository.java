@@ -0,0 +1,28 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.NotificationArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Copies one chunk of live rows in a single statement; the caller deletes them afterwards
+    @Modifying
+    @Query(value = "insert into notification_archive (id, user_id, type, subject, message, sent_at, status, " +
+            "related_appointment_id, is_read, read_at, archived_at) " +
+            "select id, user_id, type, subject, message, sent_at, status, " +
+            "related_appointment_id, is_read, read_at, :archivedAt " +
+            "from notification where id in (:ids)", nativeQuery = true)
+    int copyFromLive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    List<NotificationArchive> findByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    List<NotificationArchive> findByUserIdAndIdLessThanOrderByIdDesc(Long userId, Long beforeId, Pageable pageable);
+}
@@ -3,13 +3,84 @@ package com.example.hospital.repository;
 import com.example.hospital.model.Notification;
 import com.example.hospital.model.NotificationStatus;
 import com.example.hospital.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserOrderBySentAtDesc(User user);
-    List<Notification> findByStatusAndSentAtBefore(NotificationStatus status, LocalDateTime dateTime);
     long countByUserAndStatus(User user, NotificationStatus status);
+
+    // Inbox pages, newest first; later pages continue strictly after the (sentAt, id) cursor
+    @Query("select n from Notification n where n.user = :user order by n.sentAt desc, n.id desc")
+    List<Notification> findInboxPage(@Param("user") User user, Pageable pageable);
+
+    @Query("select n from Notification n where n.user = :user " +
+            "and (n.sentAt < :sentAt or (n.sentAt = :sentAt and n.id < :id)) " +
+            "order by n.sentAt desc, n.id desc")
+    List<Notification> findInboxPageBefore(
+            @Param("user") User user,
+            @Param("sentAt") LocalDateTime sentAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("update Notification n set n.read = true, n.readAt = :now " +
+            "where n.id = :id and n.user.id = :userId and n.read = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update Notification n set n.read = true, n.readAt = :now where n.user.id = :userId and n.read = false")
+    int markAllRead(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    boolean existsByIdAndUser(Long id, User user);
+
+    // Retry worker: FAILED rows that are due, plus PENDING rows that were never resolved.
+    // Lock timeout -2 is SKIP LOCKED, so workers on other nodes claim different rows.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from Notification n " +
+            "where (n.status = :failed and n.nextAttemptAt <= :now) " +
+            "or (n.status = :pending and n.sentAt < :pendingBefore) " +
+            "order by n.nextAttemptAt, n.id")
+    List<Notification> claimRetryBatch(
+            @Param("failed") NotificationStatus failed,
+            @Param("pending") NotificationStatus pending,
+            @Param("now") LocalDateTime now,
+            @Param("pendingBefore") LocalDateTime pendingBefore,
+            Pageable pageable
+    );
+
+    long countByStatus(NotificationStatus status);
+
+    // Archival: the next chunk of ids older than the cutoff, walking the table by id
+    @Query("select n.id from Notification n where n.sentAt < :cutoff and n.id > :afterId order by n.id")
+    List<Long> findIdsSentBefore(
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("afterId") Long afterId,
+            Pageable pageable
+    );
+
+    // Holds the chunk against concurrent mark-read calls while it is being moved
+    @Query(value = "select id from notification where id in (:ids) for update", nativeQuery = true)
+    List<Long> lockForArchive(@Param("ids") Collection<Long> ids);
+
+    @Query("select n.user.id as userId, count(n) as count from Notification n " +
+            "where n.id in :ids and n.read = false group by n.user.id")
+    List<UserCountView> countUnreadByUser(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Notification n where n.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,20 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.NotificationUnreadCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface NotificationUnreadCounterRepository extends JpaRepository<NotificationUnreadCounter, Long> {
+
+    // Relative update so concurrent writers never overwrite each other's changes
+    @Modifying
+    @Query("update NotificationUnreadCounter c set c.unreadCount = c.unreadCount + :delta where c.userId = :userId")
+    int add(@Param("userId") Long userId, @Param("delta") long delta);
+
+    // Fails on the primary key if the row already exists; callers run it in its own transaction
+    @Modifying
+    @Query(value = "insert into notification_unread_counter (user_id, unread_count) values (:userId, 0)", nativeQuery = true)
+    int createEmpty(@Param("userId") Long userId);
+}
@@ -0,0 +1,26 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.ReminderLedger;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ReminderLedgerRepository extends JpaRepository<ReminderLedger, Long> {
+
+    List<ReminderLedger> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    // A rescheduled appointment gets fresh reminders for its new time
+    @Transactional
+    @Modifying
+    @Query("delete from ReminderLedger r where r.appointmentId = :appointmentId")
+    int deleteByAppointmentId(@Param("appointmentId") Long appointmentId);
+
+    @Modifying
+    @Query("delete from ReminderLedger r where r.appointmentId in :appointmentIds")
+    int deleteByAppointmentIdIn(@Param("appointmentIds") Collection<Long> appointmentIds);
+}
@@ -0,0 +1,8 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.Role;
+
+public interface RoleCountView {
+    Role getRole();
+    long getCount();
+}
@@ -0,0 +1,12 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.AppointmentStatus;
+
+import java.time.LocalDate;
+
+public interface RollupRowView {
+    LocalDate getAppointmentDate();
+    String getSpecialization();
+    AppointmentStatus getStatus();
+    long getCount();
+}
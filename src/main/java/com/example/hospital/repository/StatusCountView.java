@@ -0,0 +1,8 @@
+package com.example.hospital.repository;
+
+import com.example.hospital.model.AppointmentStatus;
+
+public interface StatusCountView {
+    AppointmentStatus getStatus();
+    long getCount();
+}
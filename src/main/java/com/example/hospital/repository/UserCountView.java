@@ -0,0 +1,6 @@
+package com.example.hospital.repository;
+
+public interface UserCountView {
+    Long getUserId();
+    long getCount();
+}
@@ -3,11 +3,22 @@ package com.example.hospital.repository;
 import com.example.hospital.model.Role;
 import com.example.hospital.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     long countByRole(Role role);
+
+    // Expects lower-cased emails
+    @Query("select u from User u where lower(u.email) in :emails")
+    List<User> findByLowerCaseEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query("select u.role as role, count(u) as count from User u group by u.role")
+    List<RoleCountView> countGroupedByRole();
 }
@@ -0,0 +1,242 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.AdminDashboardResponse;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.event.DoctorAddedEvent;
+import com.example.hospital.event.UserRegisteredEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.Role;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.MonthCountView;
+import com.example.hospital.repository.RoleCountView;
+import com.example.hospital.repository.SpecializationCountView;
+import com.example.hospital.repository.StatusCountView;
+import com.example.hospital.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+// In-memory counters behind the admin dashboard. Domain events keep them current as users
+// register, doctors are added and appointments are booked, cancelled or rescheduled, so the
+// dashboard is built from memory. A periodic GROUP BY reconciliation replaces them with the
+// database's numbers, which also covers writes that raise no event (seed data, archival,
+// other nodes). Events are only raised on the node that handled the request, so with several nodes
+// the counters can miss other nodes' changes for up to one reconcile interval; the response
+// carries the time of the last reconciliation.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdminMetricsService {
+
+    private static final int RECENT_SIZE = 10;
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final DoctorRepository doctorRepository;
+
+    // All state is guarded by this object's monitor; every update is a few map operations
+    private Counters counters;
+    private LocalDateTime reconciledAt;
+    // Updates applied while a reconciliation is querying, replayed onto its result before the swap
+    private List<Consumer<Counters>> replay;
+
+    private final Object reconcileLock = new Object();
+
+    public AdminDashboardResponse getAdminDashboard() {
+        boolean loaded;
+        synchronized (this) {
+            loaded = counters != null;
+        }
+        if (!loaded) {
+            reconcile();
+        }
+
+        synchronized (this) {
+            YearMonth thisMonth = YearMonth.now();
+            Map<String, Long> byStatus = new HashMap<>();
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                byStatus.put(status.name(), counters.appointmentsByStatus.getOrDefault(status, 0L));
+            }
+
+            Map<String, Long> popularSpecializations = new LinkedHashMap<>();
+            counters.doctorsBySpecialization.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(5)
+                    .forEach(entry -> popularSpecializations.put(entry.getKey(), entry.getValue()));
+
+            return AdminDashboardResponse.builder()
+                    .totalUsers(counters.totalUsers)
+                    .totalPatients(counters.usersByRole.getOrDefault(Role.PATIENT, 0L))
+                    .totalDoctors(counters.usersByRole.getOrDefault(Role.DOCTOR, 0L))
+                    .totalAdmins(counters.usersByRole.getOrDefault(Role.ADMIN, 0L))
+                    .totalAppointments(counters.appointmentsByStatus.values().stream().mapToLong(Long::longValue).sum())
+                    .appointmentsByStatus(byStatus)
+                    .popularSpecializations(popularSpecializations)
+                    .recentAppointments(new ArrayList<>(counters.recentAppointments))
+                    .thisMonthAppointments(counters.appointmentsByMonth.getOrDefault(thisMonth, 0L))
+                    .lastMonthAppointments(counters.appointmentsByMonth.getOrDefault(thisMonth.minusMonths(1), 0L))
+                    .reconciledAt(reconciledAt)
+                    .build();
+        }
+    }
+
+    // The queries run outside the lock; only the swap holds it. An event whose transaction
+    // committed just before a query ran is in both the query and the replay, so it can be
+    // counted twice until the next run; without the replay it would be missing instead.
+    @Scheduled(fixedDelayString = "${admin-metrics.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                replay = new ArrayList<>();
+            }
+            try {
+                Counters fresh = load();
+
+                synchronized (this) {
+                    replay.forEach(update -> update.accept(fresh));
+                    if (counters != null && !counters.sameCountsAs(fresh)) {
+                        log.info("Admin metrics corrected by reconciliation");
+                    }
+                    counters = fresh;
+                    reconciledAt = LocalDateTime.now();
+                }
+            } finally {
+                synchronized (this) {
+                    replay = null;
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onUserRegistered(UserRegisteredEvent event) {
+        Role role = event.user().getRole();
+        apply(counters -> {
+            counters.totalUsers++;
+            if (role != null) {
+                counters.usersByRole.merge(role, 1L, Long::sum);
+            }
+        });
+    }
+
+    @EventListener
+    public void onDoctorAdded(DoctorAddedEvent event) {
+        String specialization = event.doctor().getSpecialization();
+        apply(counters -> counters.doctorsBySpecialization.merge(specialization, 1L, Long::sum));
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        Appointment appointment = event.appointment();
+
+        switch (event.type()) {
+            case BOOKED -> apply(counters -> {
+                counters.appointmentsByStatus.merge(AppointmentStatus.BOOKED, 1L, Long::sum);
+                counters.appointmentsByMonth.merge(monthOf(appointment.getAppointmentDate()), 1L, Long::sum);
+                counters.recentAppointments.removeIf(existing -> Objects.equals(existing.getId(), appointment.getId()));
+                counters.recentAppointments.add(0, appointment);
+                if (counters.recentAppointments.size() > RECENT_SIZE) {
+                    counters.recentAppointments.remove(RECENT_SIZE);
+                }
+            });
+            case CANCELLED -> apply(counters -> {
+                counters.appointmentsByStatus.merge(AppointmentStatus.BOOKED, -1L, Long::sum);
+                counters.appointmentsByStatus.merge(AppointmentStatus.CANCELLED, 1L, Long::sum);
+                replaceRecent(counters, appointment);
+            });
+            case RESCHEDULED -> {
+                LocalDate previousDate = event.previousDate();
+                apply(counters -> {
+                    counters.appointmentsByMonth.merge(monthOf(previousDate), -1L, Long::sum);
+                    counters.appointmentsByMonth.merge(monthOf(appointment.getAppointmentDate()), 1L, Long::sum);
+                    replaceRecent(counters, appointment);
+                });
+            }
+        }
+    }
+
+    // Until the first reconciliation has loaded the counters there is nothing to update, but
+    // an update that arrives while it runs is still replayed onto its result
+    private synchronized void apply(Consumer<Counters> update) {
+        if (counters != null) {
+            update.accept(counters);
+        }
+        if (replay != null) {
+            replay.add(update);
+        }
+    }
+
+    private Counters load() {
+        Counters fresh = new Counters();
+
+        for (RoleCountView row : userRepository.countGroupedByRole()) {
+            fresh.totalUsers += row.getCount();
+            if (row.getRole() != null) {
+                fresh.usersByRole.put(row.getRole(), row.getCount());
+            }
+        }
+        for (StatusCountView row : appointmentRepository.countGroupedByStatus()) {
+            if (row.getStatus() != null) {
+                fresh.appointmentsByStatus.put(row.getStatus(), row.getCount());
+            }
+        }
+        for (MonthCountView row : appointmentRepository.countGroupedByMonth()) {
+            fresh.appointmentsByMonth.put(YearMonth.of(row.getYear(), row.getMonth()), row.getCount());
+        }
+        for (SpecializationCountView row : doctorRepository.countGroupedBySpecialization()) {
+            fresh.doctorsBySpecialization.put(row.getSpecialization(), row.getCount());
+        }
+        fresh.recentAppointments.addAll(appointmentRepository.findTop10ByOrderByIdDesc());
+        return fresh;
+    }
+
+    private static void replaceRecent(Counters counters, Appointment appointment) {
+        counters.recentAppointments.replaceAll(existing ->
+                Objects.equals(existing.getId(), appointment.getId()) ? appointment : existing);
+    }
+
+    private static YearMonth monthOf(LocalDate date) {
+        return YearMonth.from(date);
+    }
+
+    private static final class Counters {
+
+        private long totalUsers;
+        private final Map<Role, Long> usersByRole = new EnumMap<>(Role.class);
+        private final Map<AppointmentStatus, Long> appointmentsByStatus = new EnumMap<>(AppointmentStatus.class);
+        private final Map<YearMonth, Long> appointmentsByMonth = new HashMap<>();
+        private final Map<String, Long> doctorsBySpecialization = new HashMap<>();
+        // Newest first, like findTop10ByOrderByIdDesc
+        private final List<Appointment> recentAppointments = new ArrayList<>();
+
+        private boolean sameCountsAs(Counters other) {
+            return totalUsers == other.totalUsers
+                    && usersByRole.equals(other.usersByRole)
+                    && appointmentsByStatus.equals(other.appointmentsByStatus)
+                    && withoutZeros(appointmentsByMonth).equals(withoutZeros(other.appointmentsByMonth))
+                    && doctorsBySpecialization.equals(other.doctorsBySpecialization);
+        }
+
+        private static <K> Map<K, Long> withoutZeros(Map<K, Long> counts) {
+            Map<K, Long> result = new HashMap<>(counts);
+            result.values().removeIf(count -> count == 0);
+            return result;
+        }
+    }
+}
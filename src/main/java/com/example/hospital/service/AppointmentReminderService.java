@@ -1,98 +1,308 @@
 package com.example.hospital.service;
 
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.event.JobLeasesChangedEvent;
 import com.example.hospital.model.Appointment;
 import com.example.hospital.model.AppointmentStatus;
 import com.example.hospital.model.NotificationType;
+import com.example.hospital.model.ReminderLedger;
 import com.example.hospital.repository.AppointmentRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.hospital.repository.ReminderLedgerRepository;
+import com.example.hospital.util.TimerWheel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.time.LocalDate;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
+// Each reminder is a timer that fires at its exact due time instead of a job re-scanning
+// the table. Timers are added when an appointment is booked or rescheduled, and the next
+// few hours are reloaded from the database on startup and periodically after that.
+// The reminder ledger row and the reminder email in the outbox commit together, so every
+// (appointment, reminder) pair is queued exactly once.
+// In a cluster each node only handles the doctor partitions it holds a lease on.
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AppointmentReminderService {
 
+    public static final String LEASE_JOB = "appointment-reminders";
+
     private final AppointmentRepository appointmentRepository;
-    private final NotificationService notificationService;
-
-    // Run every hour
-    @Scheduled(cron = "0 0 * * * *")
-    public void send24HourReminders() {
-        log.info("Running 24-hour appointment reminder job");
-
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        List<Appointment> appointments = appointmentRepository.findAll()
-                .stream()
-                .filter(apt -> apt.getAppointmentDate().equals(tomorrow))
-                .filter(apt -> apt.getStatus() == AppointmentStatus.BOOKED)
-                .toList();
-
-        for (Appointment appointment : appointments) {
-            String message = String.format(
+    private final ReminderLedgerRepository ledgerRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final JobLeaseService leaseService;
+    private final int pageSize;
+    private final Duration horizon;
+    private final Duration catchUp;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private final TimerWheel<ScheduledReminder> wheel = new TimerWheel<>(1000, 4096, System.currentTimeMillis());
+    // Latest timer per reminder; a timer that is no longer in here was superseded or cancelled
+    private final Map<ReminderKey, ScheduledReminder> scheduled = new ConcurrentHashMap<>();
+    // Reminders due before this point are already in the wheel (or were sent)
+    private volatile LocalDateTime loadedUntil;
+
+    public AppointmentReminderService(
+            AppointmentRepository appointmentRepository,
+            ReminderLedgerRepository ledgerRepository,
+            EmailOutboxService emailOutboxService,
+            TransactionTemplate transactionTemplate,
+            JobLeaseService leaseService,
+            @Value("${reminders.page-size:500}") int pageSize,
+            @Value("${reminders.horizon-minutes:120}") long horizonMinutes,
+            @Value("${reminders.catch-up-minutes:30}") long catchUpMinutes
+    ) {
+        this.appointmentRepository = appointmentRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.emailOutboxService = emailOutboxService;
+        this.transactionTemplate = transactionTemplate;
+        this.leaseService = leaseService;
+        this.pageSize = pageSize;
+        this.horizon = Duration.ofMinutes(horizonMinutes);
+        this.catchUp = Duration.ofMinutes(catchUpMinutes);
+        leaseService.register(LEASE_JOB);
+    }
+
+    // Keeps the wheel filled one horizon ahead for the partitions this node owns. The whole
+    // window is re-read each time, which also picks up bookings made on other nodes and, after
+    // a restart or a lease handover, reminders that fell due shortly before.
+    @Scheduled(fixedDelayString = "${reminders.refill-interval-ms:900000}")
+    public synchronized void refill() {
+        Set<Integer> partitions = leaseService.ownedPartitions(LEASE_JOB);
+        // Timers for partitions that moved to another node are dropped; the ledger covers any overlap
+        scheduled.values().removeIf(reminder -> !partitions.contains(
+                JobLeaseService.partitionOf(reminder.doctorId(), leaseService.partitions())));
+        if (partitions.isEmpty()) {
+            loadedUntil = null;
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = now.minus(catchUp);
+        LocalDateTime to = now.plus(horizon);
+
+        int loaded = 0;
+        for (ReminderKind kind : ReminderKind.values()) {
+            // Reminders due in [from, to) belong to appointments in [from + lead, to + lead)
+            loaded += forEachBookedBetween(from.plus(kind.lead), to.plus(kind.lead), kind, partitions, appointment ->
+                    schedule(appointment, kind));
+        }
+        loadedUntil = to;
+
+        log.info("Loaded {} reminders due before {} for partitions {}", loaded, to, partitions);
+    }
+
+    @EventListener
+    public void onLeasesChanged(JobLeasesChangedEvent event) {
+        if (LEASE_JOB.equals(event.jobName())) {
+            refill();
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void fireDue() {
+        for (ScheduledReminder reminder : wheel.advance(System.currentTimeMillis())) {
+            if (scheduled.remove(reminder.key(), reminder)) {
+                try {
+                    send(reminder);
+                } catch (RuntimeException e) {
+                    log.error("Failed to send {} for appointment {}: {}",
+                            reminder.kind(), reminder.appointmentId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        Appointment appointment = event.appointment();
+
+        switch (event.type()) {
+            case BOOKED -> scheduleWithinHorizon(appointment);
+            case RESCHEDULED -> {
+                // Reminders for the old time no longer count; the new time gets its own
+                ledgerRepository.deleteByAppointmentId(appointment.getId());
+                cancel(appointment.getId());
+                scheduleWithinHorizon(appointment);
+            }
+            case CANCELLED -> cancel(appointment.getId());
+        }
+    }
+
+    public int pendingReminders() {
+        return scheduled.size();
+    }
+
+    private void scheduleWithinHorizon(Appointment appointment) {
+        LocalDateTime until = loadedUntil;
+        if (until == null || !leaseService.owns(LEASE_JOB, appointment.getDoctor().getId())) {
+            // The owning node, or the first load on this one, picks the appointment up
+            return;
+        }
+
+        LocalDateTime appointmentAt = LocalDateTime.of(appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        LocalDateTime earliest = LocalDateTime.now().minus(catchUp);
+        for (ReminderKind kind : ReminderKind.values()) {
+            LocalDateTime dueAt = appointmentAt.minus(kind.lead);
+            if (!dueAt.isBefore(earliest) && dueAt.isBefore(until)) {
+                schedule(appointment, kind);
+            }
+        }
+    }
+
+    private void schedule(Appointment appointment, ReminderKind kind) {
+        LocalDateTime appointmentAt = LocalDateTime.of(appointment.getAppointmentDate(), appointment.getAppointmentTime());
+        ScheduledReminder reminder = new ScheduledReminder(
+                appointment.getId(),
+                appointment.getDoctor().getId(),
+                kind,
+                appointmentAt
+        );
+
+        ScheduledReminder previous = scheduled.put(reminder.key(), reminder);
+        if (reminder.equals(previous)) {
+            // Already waiting in the wheel, e.g. booked just before the refill loaded it
+            return;
+        }
+        wheel.schedule(reminder, appointmentAt.minus(kind.lead).atZone(zone).toInstant().toEpochMilli());
+    }
+
+    private void cancel(Long appointmentId) {
+        for (ReminderKind kind : ReminderKind.values()) {
+            scheduled.remove(new ReminderKey(appointmentId, kind));
+        }
+    }
+
+    private void send(ScheduledReminder reminder) {
+        Appointment appointment = appointmentRepository.findById(reminder.appointmentId()).orElse(null);
+        if (appointment == null
+                || appointment.getStatus() != AppointmentStatus.BOOKED
+                || !LocalDateTime.of(appointment.getAppointmentDate(), appointment.getAppointmentTime())
+                        .equals(reminder.appointmentAt())) {
+            return;
+        }
+
+        String subject;
+        String message;
+        if (reminder.kind() == ReminderKind.DAY_BEFORE) {
+            subject = "Appointment Reminder - Tomorrow";
+            message = String.format(
                     "Reminder: You have an appointment with Dr. %s tomorrow (%s) at %s. " +
                             "Please arrive 10 minutes early.",
                     appointment.getDoctor().getName(),
                     appointment.getAppointmentDate(),
                     appointment.getAppointmentTime()
             );
-
-            notificationService.sendNotification(
-                    appointment.getPatient(),
-                    NotificationType.APPOINTMENT_REMINDER_24H,
-                    "Appointment Reminder - Tomorrow",
-                    message,
-                    appointment.getId()
+        } else {
+            subject = "Appointment Reminder - 1 Hour";
+            message = String.format(
+                    "Reminder: Your appointment with Dr. %s is in 1 hour at %s. " +
+                            "Please be on time.",
+                    appointment.getDoctor().getName(),
+                    appointment.getAppointmentTime()
             );
         }
 
-        log.info("Sent {} 24-hour reminders", appointments.size());
+        // Whoever inserts the ledger row queues the reminder; both commit or neither does,
+        // so a crash before the commit leaves the reminder for the next refill to pick up
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                ledgerRepository.saveAndFlush(ReminderLedger.builder()
+                        .appointmentId(appointment.getId())
+                        .type(reminder.kind().type)
+                        .sentAt(LocalDateTime.now())
+                        .build());
+                emailOutboxService.enqueue(appointment.getPatient().getEmail(), subject, message);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Already queued by another node or an earlier timer
+        }
     }
 
-    // Run every 30 minutes
-    @Scheduled(cron = "0 */30 * * * *")
-    public void send1HourReminders() {
-        log.info("Running 1-hour appointment reminder job");
+    // Walks BOOKED appointments in [from, to) one keyset page at a time, so memory use
+    // depends on the page size rather than on the size of the appointment table.
+    // Appointments whose reminder of this kind is already in the ledger are skipped.
+    private int forEachBookedBetween(
+            LocalDateTime from,
+            LocalDateTime to,
+            ReminderKind kind,
+            Set<Integer> partitions,
+            Consumer<Appointment> action
+    ) {
+        int count = 0;
+        long lastId = 0;
+        List<Appointment> page;
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime oneHourLater = now.plusHours(1);
-
-        List<Appointment> appointments = appointmentRepository.findAll()
-                .stream()
-                .filter(apt -> {
-                    LocalDateTime appointmentDateTime = LocalDateTime.of(
-                            apt.getAppointmentDate(),
-                            apt.getAppointmentTime()
-                    );
-                    return appointmentDateTime.isAfter(now) &&
-                            appointmentDateTime.isBefore(oneHourLater) &&
-                            apt.getStatus() == AppointmentStatus.BOOKED;
-                })
-                .toList();
-
-        for (Appointment appointment : appointments) {
-            String message = String.format(
-                    "Reminder: Your appointment with Dr. %s is in 1 hour at %s. " +
-                            "Please be on time.",
-                    appointment.getDoctor().getName(),
-                    appointment.getAppointmentTime()
+        do {
+            page = appointmentRepository.findPageInWindow(
+                    AppointmentStatus.BOOKED,
+                    from.toLocalDate(),
+                    from.toLocalTime(),
+                    to.toLocalDate(),
+                    to.toLocalTime(),
+                    lastId,
+                    leaseService.partitions(),
+                    partitions,
+                    PageRequest.of(0, pageSize)
             );
+            if (page.isEmpty()) {
+                break;
+            }
 
-            notificationService.sendNotification(
-                    appointment.getPatient(),
-                    NotificationType.APPOINTMENT_REMINDER_1H,
-                    "Appointment Reminder - 1 Hour",
-                    message,
-                    appointment.getId()
-            );
+            Set<Long> alreadySent = new HashSet<>();
+            for (ReminderLedger entry : ledgerRepository.findByAppointmentIdIn(
+                    page.stream().map(Appointment::getId).toList())) {
+                if (entry.getType() == kind.type) {
+                    alreadySent.add(entry.getAppointmentId());
+                }
+            }
+
+            for (Appointment appointment : page) {
+                lastId = appointment.getId();
+                if (!alreadySent.contains(appointment.getId())) {
+                    action.accept(appointment);
+                    count++;
+                }
+            }
+        } while (page.size() == pageSize);
+
+        return count;
+    }
+
+    private enum ReminderKind {
+        DAY_BEFORE(NotificationType.APPOINTMENT_REMINDER_24H, Duration.ofHours(24)),
+        HOUR_BEFORE(NotificationType.APPOINTMENT_REMINDER_1H, Duration.ofHours(1));
+
+        private final NotificationType type;
+        private final Duration lead;
+
+        ReminderKind(NotificationType type, Duration lead) {
+            this.type = type;
+            this.lead = lead;
         }
+    }
 
-        log.info("Sent {} 1-hour reminders", appointments.size());
+    private record ReminderKey(Long appointmentId, ReminderKind kind) {
+    }
+
+    private record ScheduledReminder(Long appointmentId, Long doctorId, ReminderKind kind, LocalDateTime appointmentAt) {
+
+        ReminderKey key() {
+            return new ReminderKey(appointmentId, kind);
+        }
     }
 }
@@ -0,0 +1,227 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.TimeseriesGranularity;
+import com.example.hospital.dto.TimeseriesPoint;
+import com.example.hospital.dto.TimeseriesResponse;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.AppointmentDailyRollup;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.repository.AppointmentArchiveRepository;
+import com.example.hospital.repository.AppointmentDailyRollupRepository;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.RollupRowView;
+import com.example.hospital.repository.StatusCountView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Appointment counts per (date, doctor, status) for analytics. Every committed booking,
+// cancellation and reschedule marks the doctor's affected days, and a background job recounts
+// each marked day once, so charts never read appointment rows and a bulk booking costs one
+// recount per doctor-day rather than one per appointment. A recount replaces the rows instead of adding a delta, so it is correct
+// however it interleaves with other recounts and with the rebuild: an event that arrives after
+// a rebuild already counted its appointment recounts the same number. A nightly job recounts the
+// recent dates from the live and archived appointments, which repairs anything an event could
+// not apply (a crash before a marked day was recounted, a write from a tool).
+@Slf4j
+@Service
+public class AppointmentRollupService {
+
+    public static final String LEASE_JOB = "appointment-rollup";
+
+    private static final long MAX_RANGE_DAYS = 3 * 366;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AppointmentDailyRollupRepository rollupRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchiveRepository archiveRepository;
+    private final JobLeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final long rebuildPastDays;
+    private final long rebuildFutureDays;
+
+    // Doctor-days changed since the last recount
+    private final Set<DoctorDay> pending = ConcurrentHashMap.newKeySet();
+
+    public AppointmentRollupService(
+            AppointmentDailyRollupRepository rollupRepository,
+            AppointmentRepository appointmentRepository,
+            AppointmentArchiveRepository archiveRepository,
+            JobLeaseService leaseService,
+            TransactionTemplate transactionTemplate,
+            @Value("${analytics.rollup.rebuild-past-days:35}") long rebuildPastDays,
+            @Value("${analytics.rollup.rebuild-future-days:90}") long rebuildFutureDays
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.archiveRepository = archiveRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildPastDays = rebuildPastDays;
+        this.rebuildFutureDays = rebuildFutureDays;
+        leaseService.register(LEASE_JOB);
+    }
+
+    // Runs on the request thread, so it only records which days to recount
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        Appointment appointment = event.appointment();
+        Long doctorId = appointment.getDoctor().getId();
+
+        pending.add(new DoctorDay(doctorId, appointment.getAppointmentDate()));
+        if (event.type() == AppointmentEvent.Type.RESCHEDULED) {
+            pending.add(new DoctorDay(doctorId, event.previousDate()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.recount-interval-ms:1000}")
+    public void recountPending() {
+        for (DoctorDay day : List.copyOf(pending)) {
+            // Removed first: a change that lands during the recount marks the day again
+            pending.remove(day);
+            try {
+                recount(day.date(), day.doctorId());
+            } catch (RuntimeException e) {
+                // The appointment changes have committed; the nightly rebuild corrects the counts
+                log.error("Failed to update appointment rollup for doctor {} on {}: {}",
+                        day.doctorId(), day.date(), e.getMessage());
+            }
+        }
+    }
+
+    // In a cluster only the node holding partition 0 of the rollup job runs it
+    @Scheduled(cron = "${analytics.rollup.rebuild-cron:0 15 4 * * *}")
+    public void scheduledRebuild() {
+        if (leaseService.owns(LEASE_JOB, 0)) {
+            LocalDate today = LocalDate.now();
+            rebuild(today.minusDays(rebuildPastDays), today.plusDays(rebuildFutureDays));
+        }
+    }
+
+    // Replaces the rows for [from, to] with fresh counts in one transaction. A recount that
+    // inserts a row the rebuild is also inserting fails the rebuild on the unique key; it is
+    // then rerun, and its new snapshot includes that recount's appointment.
+    public int rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        long start = System.nanoTime();
+        int rows = retrying(() -> transactionTemplate.execute(status -> {
+            rollupRepository.deleteBetween(from, to);
+            return rollupRepository.insertCountedBetween(from, to);
+        }));
+        log.info("Rebuilt appointment rollup for {} to {}: {} rows in {} ms",
+                from, to, rows, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    public TimeseriesResponse getTimeseries(LocalDate from, LocalDate to, TimeseriesGranularity granularity) {
+        validateRange(from, to);
+
+        // Rows arrive ordered by date, so buckets come out in time order
+        Map<PointKey, Long> buckets = new LinkedHashMap<>();
+        for (RollupRowView row : rollupRepository.sumByDateSpecializationAndStatus(from, to)) {
+            if (row.getCount() == 0) {
+                continue;
+            }
+            PointKey key = new PointKey(periodStart(row.getAppointmentDate(), granularity), row.getSpecialization(), row.getStatus());
+            buckets.merge(key, row.getCount(), Long::sum);
+        }
+
+        List<TimeseriesPoint> points = new ArrayList<>(buckets.size());
+        buckets.forEach((key, count) -> points.add(TimeseriesPoint.builder()
+                .periodStart(key.periodStart())
+                .specialization(key.specialization())
+                .status(key.status())
+                .count(count)
+                .build()));
+
+        return TimeseriesResponse.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity)
+                .points(points)
+                .build();
+    }
+
+    // Replaces one doctor's rows for one day with the current counts. Every status gets a row,
+    // zeros included, so two overlapping recounts always collide on the unique key: the one
+    // that did not see the other's rows fails and retries with a newer snapshot.
+    private void recount(LocalDate date, Long doctorId) {
+        retrying(() -> transactionTemplate.execute(tx -> {
+            Map<AppointmentStatus, Long> counts = new EnumMap<>(AppointmentStatus.class);
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                counts.put(status, 0L);
+            }
+            for (StatusCountView row : appointmentRepository.countForDoctorDayGroupedByStatus(date, doctorId)) {
+                counts.merge(row.getStatus(), row.getCount(), Long::sum);
+            }
+            for (StatusCountView row : archiveRepository.countForDoctorDayGroupedByStatus(date, doctorId)) {
+                counts.merge(row.getStatus(), row.getCount(), Long::sum);
+            }
+
+            rollupRepository.deleteForDoctorDay(date, doctorId);
+            counts.forEach((status, count) -> rollupRepository.saveAndFlush(AppointmentDailyRollup.builder()
+                    .appointmentDate(date)
+                    .doctorId(doctorId)
+                    .status(status)
+                    .appointmentCount(count)
+                    .build()));
+            return counts.size();
+        }));
+    }
+
+    private static <T> T retrying(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return work.get();
+            } catch (DataIntegrityViolationException | ConcurrencyFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    static LocalDate periodStart(LocalDate date, TimeseriesGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+    }
+
+    private record DoctorDay(Long doctorId, LocalDate date) {
+    }
+
+    private record PointKey(LocalDate periodStart, String specialization, AppointmentStatus status) {
+    }
+}
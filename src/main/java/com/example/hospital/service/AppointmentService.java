@@ -1,17 +1,23 @@
 package com.example.hospital.service;
 
 import com.example.hospital.dto.AppointmentRequest;
+import com.example.hospital.event.AppointmentEvent;
 import com.example.hospital.model.*;
 import com.example.hospital.repository.AppointmentRepository;
 import com.example.hospital.repository.DoctorRepository;
 import com.example.hospital.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.List;
 
 @Service
@@ -21,7 +27,12 @@ public class AppointmentService {
     private final AppointmentRepository appointmentRepository;
     private final DoctorRepository doctorRepository;
     private final UserRepository userRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLocks bookingLocks;
+    private final SlotHoldService slotHoldService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Appointment bookAppointment(
             AppointmentRequest request,
@@ -34,57 +45,76 @@ public class AppointmentService {
         Doctor doctor = doctorRepository.findById(request.getDoctorId())
                 .orElseThrow(() -> new RuntimeException("Doctor not found"));
 
-        // Check if the specific time slot is already booked
-        boolean slotTaken = appointmentRepository.existsByDoctorAndAppointmentDateAndAppointmentTimeAndStatus(
-                doctor,
-                request.getAppointmentDate(),
-                request.getAppointmentTime(),
-                AppointmentStatus.BOOKED
-        );
+        LocalDate date = request.getAppointmentDate();
+        LocalTime time = request.getAppointmentTime();
 
-        if (slotTaken) {
+        // Fast path: slots the occupancy index already knows are taken never reach the database
+        if (occupancyIndex.isBooked(doctor.getId(), date, time)) {
             throw new RuntimeException("This time slot is already booked");
         }
 
-        // Check if patient already has an appointment with this doctor on this date
-        boolean alreadyBooked =
-                appointmentRepository.existsByPatientAndDoctorAndAppointmentDateAndStatus(
-                        patient,
-                        doctor,
-                        request.getAppointmentDate(),
-                        AppointmentStatus.BOOKED
+        // Only requests for the same doctor and day wait on each other here
+        Appointment savedAppointment = bookingLocks.withLock(doctor.getId(), date, () -> {
+            // Re-check under the lock: a booking that just finished on this node is already indexed
+            if (occupancyIndex.isBooked(doctor.getId(), date, time)) {
+                throw new RuntimeException("This time slot is already booked");
+            }
+
+            if (slotHoldService.isHeldByOther(doctor.getId(), date, time, patientEmail)) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "This slot is temporarily held by another patient"
                 );
+            }
+
+            // Check if patient already has an appointment with this doctor on this date
+            boolean alreadyBooked =
+                    appointmentRepository.existsByPatientAndDoctorAndAppointmentDateAndStatus(
+                            patient,
+                            doctor,
+                            date,
+                            AppointmentStatus.BOOKED
+                    );
+
+            if (alreadyBooked) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "You already have an active appointment with this doctor on this date"
+                );
+            }
+
+            Appointment appointment = Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(date)
+                    .appointmentTime(time)
+                    .status(AppointmentStatus.BOOKED)
+                    .build();
+
+            // The appointment and its confirmation email commit together, before the lock is released
+            Appointment saved = transactionTemplate.execute(status -> {
+                // The unique index on BOOKED slots rejects the insert if another node took the slot
+                Appointment booked = saveBookedSlot(appointment);
+                emailOutboxService.enqueue(
+                        patient.getEmail(),
+                        "Appointment Confirmed",
+                        "Your appointment with Dr. "
+                                + doctor.getName()
+                                + " on "
+                                + date
+                                + " at "
+                                + time
+                                + " has been confirmed."
+                );
+                return booked;
+            });
 
-        if (alreadyBooked) {
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "You already have an active appointment with this doctor on this date"
-            );
-        }
-
-
-
-        Appointment appointment = Appointment.builder()
-                .patient(patient)
-                .doctor(doctor)
-                .appointmentDate(request.getAppointmentDate())
-                .appointmentTime(request.getAppointmentTime())
-                .status(AppointmentStatus.BOOKED)
-                .build();
-
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+            occupancyIndex.markBooked(doctor.getId(), date, time);
+            slotHoldService.consume(doctor.getId(), date, time, patientEmail);
+            return saved;
+        });
 
-        emailService.sendEmail(
-                savedAppointment.getPatient().getEmail(),
-                "Appointment Confirmed",
-                "Your appointment with Dr. "
-                        + savedAppointment.getDoctor().getName()
-                        + " on "
-                        + savedAppointment.getAppointmentDate()
-                        + " at "
-                        + savedAppointment.getAppointmentTime()
-                        + " has been confirmed."
-        );
+        eventPublisher.publishEvent(AppointmentEvent.booked(savedAppointment));
 
         return savedAppointment;
 
@@ -98,21 +128,38 @@ public class AppointmentService {
             throw new RuntimeException("You cannot cancel this appointment");
         }
 
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        Appointment saved = appointmentRepository.save(appointment);
-
-        // 🔔 EMAIL ON CANCELLATION
-        emailService.sendEmail(
-                appointment.getPatient().getEmail(),
-                "Appointment Cancelled",
-                "Your appointment with Dr. "
-                        + appointment.getDoctor().getName()
-                        + " on "
-                        + appointment.getAppointmentDate()
-                        + " at "
-                        + appointment.getAppointmentTime()
-                        + " has been cancelled."
-        );
+        Long doctorId = appointment.getDoctor().getId();
+        boolean wasBooked = appointment.getStatus() == AppointmentStatus.BOOKED;
+        Appointment saved = bookingLocks.withLock(doctorId, appointment.getAppointmentDate(), () -> {
+            Appointment cancelled = transactionTemplate.execute(status -> {
+                appointment.setStatus(AppointmentStatus.CANCELLED);
+                Appointment result = appointmentRepository.save(appointment);
+
+                // 🔔 EMAIL ON CANCELLATION
+                emailOutboxService.enqueue(
+                        appointment.getPatient().getEmail(),
+                        "Appointment Cancelled",
+                        "Your appointment with Dr. "
+                                + appointment.getDoctor().getName()
+                                + " on "
+                                + appointment.getAppointmentDate()
+                                + " at "
+                                + appointment.getAppointmentTime()
+                                + " has been cancelled."
+                );
+                return result;
+            });
+
+            if (wasBooked) {
+                occupancyIndex.release(doctorId, appointment.getAppointmentDate(), appointment.getAppointmentTime());
+            }
+            return cancelled;
+        });
+
+        // Only a previously booked appointment frees a slot for the waitlist
+        if (wasBooked) {
+            eventPublisher.publishEvent(AppointmentEvent.cancelled(saved));
+        }
 
         return saved;
     }
@@ -133,8 +180,8 @@ public class AppointmentService {
     public Appointment rescheduleAppointment(
             Long appointmentId,
             String patientEmail,
-            java.time.LocalDate newDate,
-            java.time.LocalTime newTime
+            LocalDate newDate,
+            LocalTime newTime
     ) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new RuntimeException("Appointment not found"));
@@ -154,38 +201,80 @@ public class AppointmentService {
             );
         }
 
-        // Check if new slot is available
-        boolean slotTaken = appointmentRepository.existsByPatientAndDoctorAndAppointmentDateAndStatus(
-                appointment.getPatient(),
-                appointment.getDoctor(),
-                newDate,
-                AppointmentStatus.BOOKED
-        );
+        Doctor doctor = appointment.getDoctor();
+        LocalDate oldDate = appointment.getAppointmentDate();
+        LocalTime oldTime = appointment.getAppointmentTime();
 
-        if (slotTaken) {
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "You already have an appointment with this doctor on the new date"
-            );
+        if (occupancyIndex.isBooked(doctor.getId(), newDate, newTime)) {
+            throw new RuntimeException("This time slot is already booked");
         }
 
-        appointment.setAppointmentDate(newDate);
-        appointment.setAppointmentTime(newTime);
-        appointment.setRescheduleCount(appointment.getRescheduleCount() + 1);
+        List<BookingLocks.DoctorDay> days = List.of(
+                new BookingLocks.DoctorDay(doctor.getId(), oldDate),
+                new BookingLocks.DoctorDay(doctor.getId(), newDate)
+        );
 
-        Appointment saved = appointmentRepository.save(appointment);
+        Appointment saved = bookingLocks.withLocks(days, () -> {
+            if (occupancyIndex.isBooked(doctor.getId(), newDate, newTime)) {
+                throw new RuntimeException("This time slot is already booked");
+            }
 
-        // Send email notification
-        emailService.sendEmail(
-                appointment.getPatient().getEmail(),
-                "Appointment Rescheduled",
-                "Your appointment with Dr. " + appointment.getDoctor().getName()
-                        + " has been rescheduled to " + newDate + " at " + newTime
-        );
+            if (slotHoldService.isHeldByOther(doctor.getId(), newDate, newTime, patientEmail)) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "This slot is temporarily held by another patient"
+                );
+            }
+
+            // Check if patient already has another appointment with this doctor on the new date
+            boolean alreadyBooked = !newDate.equals(oldDate)
+                    && appointmentRepository.existsByPatientAndDoctorAndAppointmentDateAndStatus(
+                            appointment.getPatient(),
+                            doctor,
+                            newDate,
+                            AppointmentStatus.BOOKED
+                    );
+
+            if (alreadyBooked) {
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "You already have an appointment with this doctor on the new date"
+                );
+            }
+
+            appointment.setAppointmentDate(newDate);
+            appointment.setAppointmentTime(newTime);
+            appointment.setRescheduleCount(appointment.getRescheduleCount() + 1);
+
+            Appointment rescheduled = transactionTemplate.execute(status -> {
+                Appointment result = saveBookedSlot(appointment);
+
+                // Send email notification
+                emailOutboxService.enqueue(
+                        appointment.getPatient().getEmail(),
+                        "Appointment Rescheduled",
+                        "Your appointment with Dr. " + doctor.getName()
+                                + " has been rescheduled to " + newDate + " at " + newTime
+                );
+                return result;
+            });
+
+            occupancyIndex.release(doctor.getId(), oldDate, oldTime);
+            occupancyIndex.markBooked(doctor.getId(), newDate, newTime);
+            slotHoldService.consume(doctor.getId(), newDate, newTime, patientEmail);
+            return rescheduled;
+        });
+
+        eventPublisher.publishEvent(AppointmentEvent.rescheduled(saved, oldDate, oldTime));
 
         return saved;
     }
 
-
+    private Appointment saveBookedSlot(Appointment appointment) {
+        try {
+            return appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("This time slot is already booked");
+        }
+    }
 }
-
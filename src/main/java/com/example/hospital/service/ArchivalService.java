@@ -0,0 +1,211 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.ArchivalRunResponse;
+import com.example.hospital.model.AppointmentArchive;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.NotificationArchive;
+import com.example.hospital.repository.AppointmentArchiveRepository;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.NotificationArchiveRepository;
+import com.example.hospital.repository.NotificationRepository;
+import com.example.hospital.repository.ReminderLedgerRepository;
+import com.example.hospital.repository.UserCountView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Moves old notifications and finished appointments into the archive tables so the live tables
+// stay small. Rows are moved in short transactions of one chunk each (insert-select, then
+// delete), walking the ids in order, so locks are held for one chunk at a time and a failed
+// chunk only rolls back itself. Archived rows are read through their own endpoints.
+@Slf4j
+@Service
+public class ArchivalService {
+
+    public static final String LEASE_JOB = "archival";
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Set<AppointmentStatus> FINISHED = EnumSet.of(AppointmentStatus.COMPLETED, AppointmentStatus.CANCELLED);
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository notificationArchiveRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentArchiveRepository appointmentArchiveRepository;
+    private final ReminderLedgerRepository ledgerRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final JobLeaseService leaseService;
+    private final AdminMetricsService adminMetricsService;
+    private final TransactionTemplate transactionTemplate;
+    private final long notificationRetentionDays;
+    private final long appointmentRetentionDays;
+    private final int chunkSize;
+    private final long pauseMillis;
+
+    private volatile ArchivalRunResponse lastRun;
+
+    public ArchivalService(
+            NotificationRepository notificationRepository,
+            NotificationArchiveRepository notificationArchiveRepository,
+            AppointmentRepository appointmentRepository,
+            AppointmentArchiveRepository appointmentArchiveRepository,
+            ReminderLedgerRepository ledgerRepository,
+            UnreadCounterService unreadCounterService,
+            JobLeaseService leaseService,
+            AdminMetricsService adminMetricsService,
+            TransactionTemplate transactionTemplate,
+            @Value("${archival.notification-retention-days:90}") long notificationRetentionDays,
+            @Value("${archival.appointment-retention-days:365}") long appointmentRetentionDays,
+            @Value("${archival.chunk-size:500}") int chunkSize,
+            @Value("${archival.pause-ms:50}") long pauseMillis
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.notificationArchiveRepository = notificationArchiveRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.appointmentArchiveRepository = appointmentArchiveRepository;
+        this.ledgerRepository = ledgerRepository;
+        this.unreadCounterService = unreadCounterService;
+        this.leaseService = leaseService;
+        this.adminMetricsService = adminMetricsService;
+        this.transactionTemplate = transactionTemplate;
+        this.notificationRetentionDays = notificationRetentionDays;
+        this.appointmentRetentionDays = appointmentRetentionDays;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        leaseService.register(LEASE_JOB);
+    }
+
+    // In a cluster only the node holding partition 0 of the archival job runs it
+    @Scheduled(cron = "${archival.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (leaseService.owns(LEASE_JOB, 0)) {
+            run();
+        }
+    }
+
+    public synchronized ArchivalRunResponse run() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime notificationCutoff = startedAt.minusDays(notificationRetentionDays);
+        LocalDate appointmentCutoff = startedAt.toLocalDate().minusDays(appointmentRetentionDays);
+        long start = System.nanoTime();
+
+        long notifications = moveInChunks("notifications",
+                afterId -> notificationRepository.findIdsSentBefore(notificationCutoff, afterId, PageRequest.of(0, chunkSize)),
+                this::moveNotifications);
+        long appointments = moveInChunks("appointments",
+                afterId -> appointmentRepository.findIdsFinishedBefore(FINISHED, appointmentCutoff, afterId, PageRequest.of(0, chunkSize)),
+                this::moveAppointments);
+        if (appointments > 0) {
+            // Archived appointments leave the live totals the admin dashboard shows
+            adminMetricsService.reconcile();
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        lastRun = ArchivalRunResponse.builder()
+                .startedAt(startedAt)
+                .notificationCutoff(notificationCutoff)
+                .appointmentCutoff(appointmentCutoff)
+                .notificationsArchived(notifications)
+                .appointmentsArchived(appointments)
+                .durationMillis(millis)
+                .rowsPerSecond((notifications + appointments) * 1000.0 / millis)
+                .build();
+        return lastRun;
+    }
+
+    public ArchivalRunResponse lastRun() {
+        return lastRun;
+    }
+
+    public List<NotificationArchive> getArchivedNotifications(Long userId, Long beforeId, int size) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return beforeId == null
+                ? notificationArchiveRepository.findByUserIdOrderByIdDesc(userId, page)
+                : notificationArchiveRepository.findByUserIdAndIdLessThanOrderByIdDesc(userId, beforeId, page);
+    }
+
+    public List<AppointmentArchive> getArchivedAppointmentsForPatient(Long patientId, Long beforeId, int size) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return beforeId == null
+                ? appointmentArchiveRepository.findByPatientIdOrderByIdDesc(patientId, page)
+                : appointmentArchiveRepository.findByPatientIdAndIdLessThanOrderByIdDesc(patientId, beforeId, page);
+    }
+
+    public List<AppointmentArchive> getArchivedAppointmentsForDoctor(Long doctorId, Long beforeId, int size) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        return beforeId == null
+                ? appointmentArchiveRepository.findByDoctorIdOrderByIdDesc(doctorId, page)
+                : appointmentArchiveRepository.findByDoctorIdAndIdLessThanOrderByIdDesc(doctorId, beforeId, page);
+    }
+
+    private long moveInChunks(String what, Function<Long, List<Long>> nextChunk, ToIntFunction<List<Long>> move) {
+        long moved = 0;
+        long afterId = 0;
+        long start = System.nanoTime();
+
+        while (true) {
+            List<Long> ids = nextChunk.apply(afterId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+
+            try {
+                moved += transactionTemplate.execute(status -> move.applyAsInt(ids));
+            } catch (RuntimeException e) {
+                // The chunk stays in the live table and is picked up again on the next run
+                log.error("Failed to archive {} {} up to id {}: {}", ids.size(), what, afterId, e.getMessage());
+            }
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            pause();
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Archived {} {} in {} ms ({} rows/s)", moved, what, millis, moved * 1000 / millis);
+        return moved;
+    }
+
+    private int moveNotifications(List<Long> ids) {
+        notificationRepository.lockForArchive(ids);
+        List<UserCountView> unread = notificationRepository.countUnreadByUser(ids);
+        int copied = notificationArchiveRepository.copyFromLive(ids, LocalDateTime.now());
+        notificationRepository.deleteByIdIn(ids);
+        // Archived notifications no longer count towards the unread badge
+        for (UserCountView count : unread) {
+            unreadCounterService.recordRead(count.getUserId(), count.getCount());
+        }
+        return copied;
+    }
+
+    private int moveAppointments(List<Long> ids) {
+        int copied = appointmentArchiveRepository.copyFromLive(ids, LocalDateTime.now());
+        appointmentRepository.deleteByIdIn(ids);
+        ledgerRepository.deleteByAppointmentIdIn(ids);
+        return copied;
+    }
+
+    // Leaves room for regular traffic between chunks
+    private void pause() {
+        if (pauseMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
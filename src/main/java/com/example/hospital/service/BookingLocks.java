@@ -0,0 +1,67 @@
+package com.example.hospital.service;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Striped locks keyed by (doctorId, date). Bookings for the same doctor and day are
+// serialized while unrelated doctors and days proceed in parallel.
+@Component
+public class BookingLocks {
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    public BookingLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(Long doctorId, LocalDate date, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(doctorId, date)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Stripes are always taken in ascending order, so two callers locking
+    // overlapping sets of days can never deadlock
+    public <T> T withLocks(Collection<DoctorDay> days, Supplier<T> action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (DoctorDay day : days) {
+            stripes.add(stripe(day.doctorId(), day.date()));
+        }
+
+        Deque<ReentrantLock> acquired = new ArrayDeque<>(stripes.size());
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                acquired.push(locks[stripe]);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+
+    private int stripe(Long doctorId, LocalDate date) {
+        int hash = 31 * doctorId.hashCode() + date.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    public record DoctorDay(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.BulkAppointmentItem;
+import com.example.hospital.dto.BulkAppointmentResponse;
+import com.example.hospital.dto.BulkAppointmentResult;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.Role;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.BookedAppointmentView;
+import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkAppointmentService {
+
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final EmailOutboxService emailOutboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLocks bookingLocks;
+    private final SlotHoldService slotHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Validates the whole batch with set-based queries, inserts the accepted rows in one
+    // batched transaction and returns a result per item in request order
+    public BulkAppointmentResponse bookAll(List<BulkAppointmentItem> items) {
+        // Emails are matched ignoring case; stored emails keep the case they were registered with
+        Map<String, List<User>> patients = userRepository
+                .findByLowerCaseEmailIn(items.stream()
+                        .map(item -> item.getPatientEmail().toLowerCase())
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.groupingBy(user -> user.getEmail().toLowerCase()));
+
+        Map<Long, Doctor> doctors = doctorRepository
+                .findAllById(items.stream().map(BulkAppointmentItem::getDoctorId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Doctor::getId, Function.identity()));
+
+        List<BookingLocks.DoctorDay> days = items.stream()
+                .filter(item -> doctors.containsKey(item.getDoctorId()))
+                .map(item -> new BookingLocks.DoctorDay(item.getDoctorId(), item.getAppointmentDate()))
+                .distinct()
+                .toList();
+
+        return bookingLocks.withLocks(days, () -> book(items, patients, doctors));
+    }
+
+    private BulkAppointmentResponse book(
+            List<BulkAppointmentItem> items,
+            Map<String, List<User>> patients,
+            Map<Long, Doctor> doctors
+    ) {
+        Set<SlotKey> takenSlots = new HashSet<>();
+        Set<PatientDayKey> patientDays = new HashSet<>();
+
+        if (!doctors.isEmpty()) {
+            LocalDate startDate = items.stream().map(BulkAppointmentItem::getAppointmentDate)
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDate endDate = items.stream().map(BulkAppointmentItem::getAppointmentDate)
+                    .max(Comparator.naturalOrder()).orElseThrow();
+
+            for (BookedAppointmentView booked : appointmentRepository.findBookedByDoctorsAndDateRange(
+                    doctors.keySet(), startDate, endDate, AppointmentStatus.BOOKED)) {
+                takenSlots.add(new SlotKey(booked.getDoctorId(), booked.getAppointmentDate(), booked.getAppointmentTime()));
+                patientDays.add(new PatientDayKey(booked.getPatientId(), booked.getDoctorId(), booked.getAppointmentDate()));
+            }
+        }
+
+        BulkAppointmentResult[] results = new BulkAppointmentResult[items.size()];
+        List<Appointment> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            BulkAppointmentItem item = items.get(i);
+            User patient = findPatient(patients, item.getPatientEmail());
+            Doctor doctor = doctors.get(item.getDoctorId());
+
+            String rejection = rejectionReason(item, patient, doctor, takenSlots, patientDays);
+            if (rejection != null) {
+                results[i] = BulkAppointmentResult.builder().index(i).booked(false).message(rejection).build();
+                continue;
+            }
+
+            // Later items in the same batch conflict with this one
+            takenSlots.add(new SlotKey(doctor.getId(), item.getAppointmentDate(), item.getAppointmentTime()));
+            patientDays.add(new PatientDayKey(patient.getId(), doctor.getId(), item.getAppointmentDate()));
+
+            accepted.add(Appointment.builder()
+                    .patient(patient)
+                    .doctor(doctor)
+                    .appointmentDate(item.getAppointmentDate())
+                    .appointmentTime(item.getAppointmentTime())
+                    .status(AppointmentStatus.BOOKED)
+                    .build());
+            acceptedIndexes.add(i);
+        }
+
+        List<Appointment> saved;
+        try {
+            // One transaction; sequence ids let Hibernate send the inserts as JDBC batches, and the
+            // confirmation emails commit with the appointments they confirm
+            saved = transactionTemplate.execute(status -> {
+                List<Appointment> inserted = appointmentRepository.saveAll(accepted);
+                for (Appointment appointment : inserted) {
+                    emailOutboxService.enqueue(
+                            appointment.getPatient().getEmail(),
+                            "Appointment Confirmed",
+                            "Your appointment with Dr. "
+                                    + appointment.getDoctor().getName()
+                                    + " on "
+                                    + appointment.getAppointmentDate()
+                                    + " at "
+                                    + appointment.getAppointmentTime()
+                                    + " has been confirmed."
+                    );
+                }
+                return inserted;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Some slots were booked concurrently, please retry the batch"
+            );
+        }
+
+        for (int i = 0; i < saved.size(); i++) {
+            Appointment appointment = saved.get(i);
+            occupancyIndex.markBooked(
+                    appointment.getDoctor().getId(),
+                    appointment.getAppointmentDate(),
+                    appointment.getAppointmentTime()
+            );
+            results[acceptedIndexes.get(i)] = BulkAppointmentResult.builder()
+                    .index(acceptedIndexes.get(i))
+                    .booked(true)
+                    .appointmentId(appointment.getId())
+                    .message("Appointment booked")
+                    .build();
+        }
+
+        for (Appointment appointment : saved) {
+            eventPublisher.publishEvent(AppointmentEvent.booked(appointment));
+        }
+
+        log.info("Bulk booking: {} requested, {} booked", items.size(), saved.size());
+
+        return BulkAppointmentResponse.builder()
+                .requested(items.size())
+                .booked(saved.size())
+                .rejected(items.size() - saved.size())
+                .results(List.of(results))
+                .build();
+    }
+
+    // Two accounts may differ only in the case of their email; then only an exact match counts
+    private static User findPatient(Map<String, List<User>> patients, String email) {
+        List<User> matches = patients.getOrDefault(email.toLowerCase(), List.of());
+        if (matches.size() == 1) {
+            return matches.get(0);
+        }
+        return matches.stream().filter(user -> user.getEmail().equals(email)).findFirst().orElse(null);
+    }
+
+    private String rejectionReason(
+            BulkAppointmentItem item,
+            User patient,
+            Doctor doctor,
+            Set<SlotKey> takenSlots,
+            Set<PatientDayKey> patientDays
+    ) {
+        if (patient == null) {
+            return "Patient not found";
+        }
+        if (patient.getRole() != Role.PATIENT) {
+            return "Account is not a patient";
+        }
+        if (doctor == null) {
+            return "Doctor not found";
+        }
+        if (takenSlots.contains(new SlotKey(doctor.getId(), item.getAppointmentDate(), item.getAppointmentTime()))) {
+            return "This time slot is already booked";
+        }
+        if (slotHoldService.isHeldByOther(
+                doctor.getId(), item.getAppointmentDate(), item.getAppointmentTime(), patient.getEmail())) {
+            return "This slot is temporarily held by another patient";
+        }
+        if (patientDays.contains(new PatientDayKey(patient.getId(), doctor.getId(), item.getAppointmentDate()))) {
+            return "Patient already has an active appointment with this doctor on this date";
+        }
+        return null;
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date, LocalTime time) {
+    }
+
+    private record PatientDayKey(Long patientId, Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.hospital.service;
+
+import com.example.hospital.config.CacheConfig;
+import com.example.hospital.dto.CacheStatsResponse;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.repository.DoctorRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Drops the cached dashboards an appointment change affects, once the change has committed
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardCacheService {
+
+    private final CacheManager cacheManager;
+    private final DoctorRepository doctorRepository;
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        Appointment appointment = event.appointment();
+
+        Cache patientDashboards = cacheManager.getCache(CacheConfig.PATIENT_DASHBOARD);
+        if (patientDashboards != null) {
+            patientDashboards.evict(appointment.getPatient().getEmail());
+        }
+
+        // Doctor dashboards are keyed by the login email of the doctor's linked account
+        try {
+            doctorRepository.findAccountEmail(appointment.getDoctor().getId())
+                    .ifPresent(this::evictDoctorDashboard);
+        } catch (RuntimeException e) {
+            // The appointment change itself has committed; the cached dashboard expires with its TTL
+            log.error("Failed to evict doctor dashboard for appointment {}: {}", appointment.getId(), e.getMessage());
+        }
+    }
+
+    public void evictDoctorDashboard(String email) {
+        Cache doctorDashboards = cacheManager.getCache(CacheConfig.DOCTOR_DASHBOARD);
+        if (doctorDashboards != null) {
+            doctorDashboards.evict(email);
+        }
+    }
+
+    public List<CacheStatsResponse> stats() {
+        List<CacheStatsResponse> result = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            if (cacheManager.getCache(name) instanceof CaffeineCache cache) {
+                CacheStats stats = cache.getNativeCache().stats();
+                result.add(CacheStatsResponse.builder()
+                        .name(name)
+                        .size(cache.getNativeCache().estimatedSize())
+                        .hitCount(stats.hitCount())
+                        .missCount(stats.missCount())
+                        .hitRate(stats.hitRate())
+                        .evictionCount(stats.evictionCount())
+                        .build());
+            }
+        }
+        return result;
+    }
+}
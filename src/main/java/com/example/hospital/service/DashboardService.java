@@ -5,14 +5,18 @@ import com.example.hospital.dto.DoctorDashboardResponse;
 import com.example.hospital.dto.PatientDashboardResponse;
 import com.example.hospital.model.*;
 import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.DoctorCountView;
 import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.StatusCountView;
 import com.example.hospital.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,45 +28,34 @@ public class DashboardService {
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final DoctorRepository doctorRepository;
+    private final AdminMetricsService adminMetricsService;
 
     @Cacheable(value = "patientDashboard", key = "#patientEmail")
     public PatientDashboardResponse getPatientDashboard(String patientEmail) {
         User patient = userRepository.findByEmail(patientEmail)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
 
-        long totalAppointments = appointmentRepository.countByPatient(patient);
-        long upcomingAppointments = appointmentRepository
-                .findByPatientAndAppointmentDateAfterOrderByAppointmentDateAsc(patient, LocalDate.now())
-                .size();
-        long completedAppointments = appointmentRepository
-                .countByPatientAndStatus(patient, AppointmentStatus.COMPLETED);
-        long cancelledAppointments = appointmentRepository
-                .countByPatientAndStatus(patient, AppointmentStatus.CANCELLED);
+        long totalAppointments = 0;
+        Map<AppointmentStatus, Long> byStatus = new EnumMap<>(AppointmentStatus.class);
+        for (StatusCountView row : appointmentRepository.countByPatientGroupedByStatus(patient)) {
+            totalAppointments += row.getCount();
+            if (row.getStatus() != null) {
+                byStatus.put(row.getStatus(), row.getCount());
+            }
+        }
+        long completedAppointments = byStatus.getOrDefault(AppointmentStatus.COMPLETED, 0L);
+        long cancelledAppointments = byStatus.getOrDefault(AppointmentStatus.CANCELLED, 0L);
 
+        LocalDate today = LocalDate.now();
+        long upcomingAppointments = appointmentRepository.countByPatientAndAppointmentDateAfter(patient, today);
         List<Appointment> nextAppointments = appointmentRepository
-                .findByPatientAndAppointmentDateAfterOrderByAppointmentDateAsc(patient, LocalDate.now())
-                .stream()
-                .limit(5)
-                .collect(Collectors.toList());
+                .findTop5ByPatientAndAppointmentDateAfterOrderByAppointmentDateAscAppointmentTimeAsc(patient, today);
 
-        // Calculate favorite doctors (most visited)
-        Map<String, Long> favoriteDoctors = appointmentRepository
-                .findByPatientOrderByAppointmentDateDesc(patient)
-                .stream()
-                .collect(Collectors.groupingBy(
-                        appointment -> appointment.getDoctor().getName(),
-                        Collectors.counting()
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        HashMap::new
-                ));
+        // Favorite doctors (most visited), counted by the database
+        Map<String, Long> favoriteDoctors = new LinkedHashMap<>();
+        for (DoctorCountView row : appointmentRepository.findMostVisitedDoctors(patient, PageRequest.of(0, 5))) {
+            favoriteDoctors.put(row.getDoctorName(), row.getCount());
+        }
 
         return PatientDashboardResponse.builder()
                 .totalAppointments(totalAppointments)
@@ -76,15 +69,7 @@ public class DashboardService {
 
     @Cacheable(value = "doctorDashboard", key = "#doctorEmail")
     public DoctorDashboardResponse getDoctorDashboard(String doctorEmail) {
-        User user = userRepository.findByEmail(doctorEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        // Find doctor by email (assuming doctor has a user account)
-        // For simplicity, we'll find by name match or you can add email to Doctor entity
-        List<Doctor> doctors = doctorRepository.findAll();
-        Doctor doctor = doctors.stream()
-                .filter(d -> d.getName().equalsIgnoreCase(user.getName()))
-                .findFirst()
+        Doctor doctor = doctorRepository.findByUserEmail(doctorEmail)
                 .orElseThrow(() -> new RuntimeException("Doctor profile not found"));
 
         LocalDate today = LocalDate.now();
@@ -116,65 +101,8 @@ public class DashboardService {
                 .build();
     }
 
-    @Cacheable(value = "adminDashboard")
+    // Served from counters maintained by events instead of a round of count queries
     public AdminDashboardResponse getAdminDashboard() {
-        long totalUsers = userRepository.count();
-        long totalPatients = userRepository.countByRole(Role.PATIENT);
-        long totalDoctors = userRepository.countByRole(Role.DOCTOR);
-        long totalAdmins = userRepository.countByRole(Role.ADMIN);
-        long totalAppointments = appointmentRepository.count();
-
-        // Appointments by status
-        Map<String, Long> appointmentsByStatus = new HashMap<>();
-        for (AppointmentStatus status : AppointmentStatus.values()) {
-            appointmentsByStatus.put(status.name(), appointmentRepository.countByStatus(status));
-        }
-
-        // Popular specializations
-        Map<String, Long> popularSpecializations = doctorRepository.findAll()
-                .stream()
-                .collect(Collectors.groupingBy(
-                        Doctor::getSpecialization,
-                        Collectors.counting()
-                ))
-                .entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                .limit(5)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        HashMap::new
-                ));
-
-        // Recent appointments
-        List<Appointment> recentAppointments = appointmentRepository
-                .findTop10ByOrderByIdDesc();
-
-        // This month vs last month
-        LocalDate now = LocalDate.now();
-        LocalDate thisMonthStart = now.withDayOfMonth(1);
-        LocalDate thisMonthEnd = now.withDayOfMonth(now.lengthOfMonth());
-        LocalDate lastMonthStart = thisMonthStart.minusMonths(1);
-        LocalDate lastMonthEnd = lastMonthStart.withDayOfMonth(lastMonthStart.lengthOfMonth());
-
-        long thisMonthAppointments = appointmentRepository
-                .countByAppointmentDateBetween(thisMonthStart, thisMonthEnd);
-        long lastMonthAppointments = appointmentRepository
-                .countByAppointmentDateBetween(lastMonthStart, lastMonthEnd);
-
-        return AdminDashboardResponse.builder()
-                .totalUsers(totalUsers)
-                .totalPatients(totalPatients)
-                .totalDoctors(totalDoctors)
-                .totalAdmins(totalAdmins)
-                .totalAppointments(totalAppointments)
-                .appointmentsByStatus(appointmentsByStatus)
-                .popularSpecializations(popularSpecializations)
-                .recentAppointments(recentAppointments)
-                .thisMonthAppointments(thisMonthAppointments)
-                .lastMonthAppointments(lastMonthAppointments)
-                .build();
+        return adminMetricsService.getAdminDashboard();
     }
 }
@@ -0,0 +1,69 @@
+package com.example.hospital.service;
+
+import java.time.LocalTime;
+import java.util.BitSet;
+
+// Immutable set of booked slot start times for one doctor on one day.
+// Each bit is a minute of the day, so any slot duration fits in 1440 bits.
+public final class DayOccupancy {
+
+    public static final DayOccupancy EMPTY = new DayOccupancy(new BitSet());
+
+    private final BitSet bookedMinutes;
+
+    private DayOccupancy(BitSet bookedMinutes) {
+        this.bookedMinutes = bookedMinutes;
+    }
+
+    public static DayOccupancy of(Iterable<LocalTime> bookedTimes) {
+        BitSet bits = new BitSet();
+        for (LocalTime time : bookedTimes) {
+            bits.set(minuteOfDay(time));
+        }
+        return new DayOccupancy(bits);
+    }
+
+    public boolean isBooked(LocalTime time) {
+        return bookedMinutes.get(minuteOfDay(time));
+    }
+
+    public boolean isBooked(int minuteOfDay) {
+        return bookedMinutes.get(minuteOfDay);
+    }
+
+    public int bookedCount() {
+        return bookedMinutes.cardinality();
+    }
+
+    public DayOccupancy with(LocalTime time) {
+        if (isBooked(time)) {
+            return this;
+        }
+        BitSet copy = (BitSet) bookedMinutes.clone();
+        copy.set(minuteOfDay(time));
+        return new DayOccupancy(copy);
+    }
+
+    public DayOccupancy without(LocalTime time) {
+        if (!isBooked(time)) {
+            return this;
+        }
+        BitSet copy = (BitSet) bookedMinutes.clone();
+        copy.clear(minuteOfDay(time));
+        return new DayOccupancy(copy);
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DayOccupancy other && bookedMinutes.equals(other.bookedMinutes);
+    }
+
+    @Override
+    public int hashCode() {
+        return bookedMinutes.hashCode();
+    }
+}
@@ -1,29 +1,40 @@
 package com.example.hospital.service;
 
 import com.example.hospital.dto.AvailableSlotResponse;
+import com.example.hospital.dto.DailySlotsResponse;
 import com.example.hospital.dto.DoctorAvailabilityRequest;
 import com.example.hospital.dto.DoctorLeaveRequest;
 import com.example.hospital.model.*;
-import com.example.hospital.repository.AppointmentRepository;
 import com.example.hospital.repository.DoctorAvailabilityRepository;
 import com.example.hospital.repository.DoctorLeaveRepository;
 import com.example.hospital.repository.DoctorRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DoctorAvailabilityService {
 
+    private static final int MAX_RANGE_DAYS = 62;
+
     private final DoctorRepository doctorRepository;
     private final DoctorAvailabilityRepository availabilityRepository;
     private final DoctorLeaveRepository leaveRepository;
-    private final AppointmentRepository appointmentRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final SlotHoldService slotHoldService;
+    private final WeeklyScheduleService weeklyScheduleService;
 
     public DoctorAvailability setAvailability(Long doctorId, DoctorAvailabilityRequest request) {
         Doctor doctor = doctorRepository.findById(doctorId)
@@ -38,7 +49,9 @@ public class DoctorAvailabilityService {
                 .isActive(true)
                 .build();
 
-        return availabilityRepository.save(availability);
+        DoctorAvailability saved = availabilityRepository.save(availability);
+        weeklyScheduleService.evict(doctorId);
+        return saved;
     }
 
     public List<DoctorAvailability> getDoctorAvailability(Long doctorId) {
@@ -80,44 +93,83 @@ public class DoctorAvailabilityService {
             return new ArrayList<>(); // No slots available on leave days
         }
 
-        // Get day of week from date
-        DayOfWeek dayOfWeek = convertToDayOfWeek(date.getDayOfWeek());
-
-        // Get availability for this day
-        List<DoctorAvailability> availabilities = availabilityRepository
-                .findByDoctorAndDayOfWeekAndIsActiveTrue(doctor, dayOfWeek);
+        // Get the compiled slots for this day of the week
+        WeeklySchedule.DaySchedule daySchedule = weeklyScheduleService.getSchedule(doctor).day(date.getDayOfWeek());
 
-        if (availabilities.isEmpty()) {
+        if (daySchedule.isEmpty()) {
             return new ArrayList<>();
         }
 
-        List<AvailableSlotResponse> slots = new ArrayList<>();
-        DoctorAvailability availability = availabilities.get(0);
-
-        // Generate time slots
-        LocalTime currentSlot = availability.getStartTime();
-        LocalTime endTime = availability.getEndTime();
+        return buildSlots(
+                daySchedule,
+                occupancyIndex.get(doctor.getId(), date),
+                slotHoldService.holdsFor(doctor.getId(), date)
+        );
+    }
 
-        while (currentSlot.isBefore(endTime)) {
-            boolean isBooked = appointmentRepository.existsByDoctorAndAppointmentDateAndAppointmentTimeAndStatus(
-                    doctor,
-                    date,
-                    currentSlot,
-                    AppointmentStatus.BOOKED
+    // Calendar view: templates, leaves and bookings are each loaded once for the whole range
+    public List<DailySlotsResponse> getAvailableSlots(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End date must not be before start date");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_RANGE_DAYS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Date range cannot exceed " + MAX_RANGE_DAYS + " days"
             );
+        }
 
-            slots.add(AvailableSlotResponse.builder()
-                    .slotTime(currentSlot)
-                    .isAvailable(!isBooked)
-                    .build());
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        WeeklySchedule schedule = weeklyScheduleService.getSchedule(doctor);
+
+        Set<LocalDate> leaveDates = leaveRepository
+                .findByDoctorAndLeaveDateBetween(doctor, startDate, endDate)
+                .stream()
+                .map(DoctorLeave::getLeaveDate)
+                .collect(Collectors.toSet());
 
-            currentSlot = currentSlot.plusMinutes(availability.getSlotDuration());
+        Map<LocalDate, DayOccupancy> occupancy = occupancyIndex.getRange(doctor.getId(), startDate, endDate);
+
+        List<DailySlotsResponse> days = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            boolean onLeave = leaveDates.contains(date);
+            WeeklySchedule.DaySchedule daySchedule = schedule.day(date.getDayOfWeek());
+
+            List<AvailableSlotResponse> slots = onLeave || daySchedule.isEmpty()
+                    ? new ArrayList<>()
+                    : buildSlots(daySchedule, occupancy.get(date), slotHoldService.holdsFor(doctor.getId(), date));
+
+            days.add(DailySlotsResponse.builder()
+                    .date(date)
+                    .onLeave(onLeave)
+                    .slots(slots)
+                    .build());
         }
 
-        return slots;
+        return days;
     }
 
-    private DayOfWeek convertToDayOfWeek(java.time.DayOfWeek javaDayOfWeek) {
-        return DayOfWeek.valueOf(javaDayOfWeek.name());
+    private List<AvailableSlotResponse> buildSlots(
+            WeeklySchedule.DaySchedule daySchedule,
+            DayOccupancy occupancy,
+            Map<LocalTime, SlotHold> holds
+    ) {
+        List<AvailableSlotResponse> slots = new ArrayList<>(daySchedule.size());
+        Instant now = Instant.now();
+
+        for (int i = 0; i < daySchedule.size(); i++) {
+            LocalTime slotTime = daySchedule.timeAt(i);
+            SlotHold hold = holds.isEmpty() ? null : holds.get(slotTime);
+            boolean held = hold != null && hold.isActive(now);
+
+            slots.add(AvailableSlotResponse.builder()
+                    .slotTime(slotTime)
+                    .isAvailable(!occupancy.isBooked(daySchedule.minuteAt(i)) && !held)
+                    .build());
+        }
+
+        return slots;
     }
 }
@@ -1,10 +1,21 @@
 package com.example.hospital.service;
 
+import com.example.hospital.dto.DoctorAccountResponse;
+import com.example.hospital.event.DoctorAddedEvent;
 import com.example.hospital.model.Doctor;
+import com.example.hospital.model.Role;
+import com.example.hospital.model.User;
 import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -17,6 +28,9 @@ import org.springframework.cache.annotation.Cacheable;
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserRepository userRepository;
+    private final DashboardCacheService dashboardCacheService;
 
     @CacheEvict(value = "doctors", allEntries = true)
     public Doctor addDoctor(Doctor doctor) {
@@ -27,7 +41,9 @@ public class DoctorService {
                 "' and specialization '" + doctor.getSpecialization() + "' already exists"
             );
         }
-        return doctorRepository.save(doctor);
+        Doctor saved = doctorRepository.save(doctor);
+        eventPublisher.publishEvent(new DoctorAddedEvent(saved));
+        return saved;
     }
 
     @Cacheable("doctors")
@@ -42,4 +58,49 @@ public class DoctorService {
     public List<Doctor> getDoctorsBySpecialization(String specialization) {
         return doctorRepository.findBySpecializationIgnoreCase(specialization);
     }
+
+    // Links the account a doctor logs in with, which the doctor dashboard looks the profile up by
+    @Transactional
+    public DoctorAccountResponse linkAccount(Long doctorId, String email) {
+        Doctor doctor = doctorRepository.findById(doctorId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Doctor not found"));
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+
+        if (user.getRole() != Role.DOCTOR) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User is not a doctor");
+        }
+        doctorRepository.findByUserId(user.getId())
+                .filter(linked -> !linked.getId().equals(doctor.getId()))
+                .ifPresent(linked -> {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Account is already linked to doctor " + linked.getId());
+                });
+
+        // Both the old and the new account would otherwise keep showing a cached dashboard
+        String previousEmail = doctor.getUser() != null ? doctor.getUser().getEmail() : null;
+        doctor.setUser(user);
+        doctorRepository.save(doctor);
+        evictDashboardsAfterCommit(previousEmail, user.getEmail());
+
+        return DoctorAccountResponse.builder()
+                .doctorId(doctor.getId())
+                .doctorName(doctor.getName())
+                .userId(user.getId())
+                .email(user.getEmail())
+                .build();
+    }
+
+    // Evicting before commit would let a concurrent request cache the old link again
+    private void evictDashboardsAfterCommit(String previousEmail, String email) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (previousEmail != null) {
+                    dashboardCacheService.evictDoctorDashboard(previousEmail);
+                }
+                dashboardCacheService.evictDoctorDashboard(email);
+            }
+        });
+    }
 }
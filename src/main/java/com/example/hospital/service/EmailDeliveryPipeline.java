@@ -0,0 +1,189 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.EmailPipelineStatsResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Emails go through a bounded queue to a small pool of workers. Each worker drains up to
+// batchSize messages and hands them to JavaMailSender in one call, which sends the whole
+// batch over a single SMTP connection instead of opening a session per message.
+@Slf4j
+@Component
+public class EmailDeliveryPipeline {
+
+    private final JavaMailSender mailSender;
+    private final BlockingQueue<PendingEmail> queue;
+    private final int queueCapacity;
+    private final int workerCount;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    public EmailDeliveryPipeline(
+            JavaMailSender mailSender,
+            @Value("${email-pipeline.queue-capacity:1000}") int queueCapacity,
+            @Value("${email-pipeline.workers:2}") int workerCount,
+            @Value("${email-pipeline.batch-size:50}") int batchSize,
+            @Value("${email-pipeline.offer-timeout-ms:2000}") long offerTimeoutMillis
+    ) {
+        this.mailSender = mailSender;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "email-pipeline-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    // Workers finish what is already queued before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(10_000);
+        }
+    }
+
+    // Backpressure: when the queue is full the caller waits up to the offer timeout, then gets rejected
+    public CompletableFuture<Void> submit(String to, String subject, String body) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject(subject);
+        message.setText(body);
+
+        PendingEmail email = new PendingEmail(message, new CompletableFuture<>());
+        boolean accepted;
+        try {
+            accepted = running && queue.offer(email, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+
+        if (!accepted) {
+            rejected.incrementAndGet();
+            email.result().completeExceptionally(new RejectedExecutionException("Email queue is full"));
+        }
+        return email.result();
+    }
+
+    public EmailPipelineStatsResponse stats() {
+        long batchCount = batches.get();
+        long sentCount = sent.get();
+        long failedCount = failed.get();
+
+        return EmailPipelineStatsResponse.builder()
+                .queueDepth(queue.size())
+                .queueCapacity(queueCapacity)
+                .workers(workerCount)
+                .sent(sentCount)
+                .failed(failedCount)
+                .rejected(rejected.get())
+                .batches(batchCount)
+                .averageBatchSize(batchCount == 0 ? 0 : (double) (sentCount + failedCount) / batchCount)
+                .averageSendMillis(batchCount == 0 ? 0 : sendNanos.get() / 1_000_000.0 / batchCount)
+                .maxSendMillis(TimeUnit.NANOSECONDS.toMillis(maxSendNanos.get()))
+                .build();
+    }
+
+    private void runWorker() {
+        List<PendingEmail> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingEmail first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email pipeline worker error: {}", e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<PendingEmail> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).message();
+        }
+
+        long start = System.nanoTime();
+        Map<Object, Exception> failures = Map.of();
+        MailException batchFailure = null;
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Failures are reported per message; the rest of the batch went out
+            failures = e.getFailedMessages();
+            if (failures.isEmpty()) {
+                batchFailure = e;
+            }
+        } catch (MailException e) {
+            batchFailure = e;
+        }
+        recordLatency(System.nanoTime() - start);
+
+        for (PendingEmail email : batch) {
+            Exception failure = batchFailure != null ? batchFailure : failures.get(email.message());
+            if (failure == null) {
+                sent.incrementAndGet();
+                email.result().complete(null);
+            } else {
+                failed.incrementAndGet();
+                email.result().completeExceptionally(failure);
+            }
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        batches.incrementAndGet();
+        sendNanos.addAndGet(nanos);
+        maxSendNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private record PendingEmail(SimpleMailMessage message, CompletableFuture<Void> result) {
+    }
+}
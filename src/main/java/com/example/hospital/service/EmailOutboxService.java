@@ -0,0 +1,140 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.EmailOutbox;
+import com.example.hospital.model.NotificationStatus;
+import com.example.hospital.repository.EmailOutboxRepository;
+import com.example.hospital.util.Backoff;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Failed sends are retried with exponential backoff, so a mail server outage delays the
+// queued emails instead of using up their attempts within a few polls.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${email-outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${email-outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${email-outbox.base-delay-seconds:30}")
+    private long baseDelaySeconds;
+
+    @Value("${email-outbox.max-delay-minutes:60}")
+    private long maxDelayMinutes;
+
+    // Bounds how long a claimed batch, and its row locks, wait on the mail server
+    @Value("${email-outbox.send-timeout-ms:30000}")
+    private long sendTimeoutMillis;
+
+    @Value("${email-outbox.retention-days:7}")
+    private int retentionDays;
+
+    // Must join the caller's transaction so the email is only queued if the change commits
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String to, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(body)
+                .status(NotificationStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${email-outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        // Keep draining while full batches go out cleanly
+        int sent;
+        do {
+            sent = transactionTemplate.execute(status -> dispatchBatch());
+        } while (sent == batchSize);
+    }
+
+    // Rows stay locked until the batch commits, so each email is claimed by a single dispatcher
+    private int dispatchBatch() {
+        List<EmailOutbox> batch = outboxRepository.claimBatch(
+                NotificationStatus.PENDING,
+                LocalDateTime.now(),
+                PageRequest.of(0, batchSize)
+        );
+        int sent = 0;
+
+        // Queue the whole batch first so the pipeline can deliver it over shared connections
+        List<CompletableFuture<Void>> results = new ArrayList<>(batch.size());
+        for (EmailOutbox email : batch) {
+            results.add(emailService.sendEmailAsync(email.getRecipient(), email.getSubject(), email.getBody()));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox email = batch.get(i);
+            try {
+                results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                email.setStatus(NotificationStatus.SENT);
+                email.setSentAt(LocalDateTime.now());
+                email.setNextAttemptAt(null);
+                sent++;
+            } catch (ExecutionException e) {
+                recordFailure(email, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            } catch (TimeoutException e) {
+                // The message may still go out later; a retry can then deliver it twice
+                recordFailure(email, "Timed out waiting for the mail server");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(email, "Interrupted while waiting for the mail server");
+            }
+        }
+
+        // A failure ends this round; the remaining rows are retried on the next poll
+        return sent;
+    }
+
+    private void recordFailure(EmailOutbox email, String error) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (attempts >= maxAttempts) {
+            email.setStatus(NotificationStatus.FAILED);
+            email.setNextAttemptAt(null);
+            log.error("Giving up on email {} to {} after {} attempts: {}", email.getId(), email.getRecipient(), attempts, error);
+        } else {
+            email.setNextAttemptAt(LocalDateTime.now().plus(Backoff.equalJitter(
+                    Duration.ofSeconds(baseDelaySeconds), Duration.ofMinutes(maxDelayMinutes), attempts)));
+        }
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    public void purgeSent() {
+        int deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(
+                NotificationStatus.SENT,
+                LocalDateTime.now().minusDays(retentionDays)
+        ));
+        log.info("Purged {} sent emails from the outbox", deleted);
+    }
+}
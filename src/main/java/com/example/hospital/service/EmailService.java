@@ -1,23 +1,32 @@
 package com.example.hospital.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.MailSendException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailDeliveryPipeline deliveryPipeline;
 
+    // Blocks until the pipeline has delivered the message; failures are rethrown to the caller
     public void sendEmail(String to, String subject, String body) {
+        try {
+            sendEmailAsync(to, subject, body).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new MailSendException("Failed to send email to " + to, e.getCause());
+        }
+    }
 
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-
-        mailSender.send(message);
+    // Lets callers queue many messages first so the pipeline can send them in batches
+    public CompletableFuture<Void> sendEmailAsync(String to, String subject, String body) {
+        return deliveryPipeline.submit(to, subject, body);
     }
 }
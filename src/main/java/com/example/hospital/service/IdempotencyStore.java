@@ -0,0 +1,136 @@
+package com.example.hospital.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Bounded, expiring Idempotency-Key -> result store. A retried request with the same key
+// gets the stored result back without running the operation (or sending email) again;
+// a duplicate that arrives while the first is still running waits for its result.
+// Keys live in this node's memory only. With several nodes, requests must be routed by
+// caller (sticky sessions), or a retry that lands on another node runs the operation again.
+@Component
+public class IdempotencyStore {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    // Insertion order == expiry order, so expired and overflow entries are always at the head
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    public IdempotencyStore(
+            @Value("${idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.wait-ms:5000}") long waitMillis
+    ) {
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitMillis;
+    }
+
+    // scope: operation + caller, fingerprint: the request payload the key was first used with
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String scope, String key, Object fingerprint, Supplier<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters"
+            );
+        }
+
+        String storeKey = scope + ":" + key;
+        String requestFingerprint = String.valueOf(fingerprint);
+        Entry entry;
+        boolean owner = false;
+
+        synchronized (entries) {
+            long now = System.currentTimeMillis();
+            purge(now);
+
+            entry = entries.get(storeKey);
+            if (entry == null) {
+                entry = new Entry(requestFingerprint, now + ttlMillis, new CompletableFuture<>());
+                entries.put(storeKey, entry);
+                owner = true;
+            }
+        }
+
+        if (!entry.fingerprint().equals(requestFingerprint)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used with a different request"
+            );
+        }
+
+        if (owner) {
+            try {
+                T result = action.get();
+                entry.result().complete(result);
+                return result;
+            } catch (RuntimeException e) {
+                // Failures are not remembered, so the client can retry with the same key
+                synchronized (entries) {
+                    entries.remove(storeKey, entry);
+                }
+                entry.result().completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        // A duplicate holds a request thread while it waits, so the wait is bounded
+        try {
+            return (T) entry.result().get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "A request with this Idempotency-Key is still being processed, retry later"
+            );
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the original request");
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // Requests still running are never evicted, or a retry would run the operation again;
+    // the store can then briefly exceed maxEntries by the number of requests in flight
+    private void purge(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next().getValue();
+            if (entry.expiresAt() > now && entries.size() < maxEntries) {
+                break;
+            }
+            if (entry.result().isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private record Entry(String fingerprint, long expiresAt, CompletableFuture<Object> result) {
+    }
+}
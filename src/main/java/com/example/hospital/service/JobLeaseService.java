@@ -0,0 +1,208 @@
+package com.example.hospital.service;
+
+import com.example.hospital.event.JobLeasesChangedEvent;
+import com.example.hospital.model.ClusterNode;
+import com.example.hospital.model.JobLease;
+import com.example.hospital.repository.ClusterNodeRepository;
+import com.example.hospital.repository.JobLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Splits scheduled jobs across nodes. Each job is cut into a fixed number of partitions and
+// every partition is leased to one node at a time through the job_lease table. Nodes renew
+// their leases well before they expire and aim for an even share of the partitions, based on
+// the heartbeats in cluster_node: a node holding more than its share releases the surplus so
+// that a newly started node can pick it up.
+// Lease times use each node's clock, so node clocks are assumed to be roughly in sync.
+@Slf4j
+@Service
+public class JobLeaseService {
+
+    private static final LocalDateTime NEVER = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final JobLeaseRepository leaseRepository;
+    private final ClusterNodeRepository nodeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+    private final int partitions;
+    private final Duration leaseDuration;
+
+    // job -> partitions this node holds a valid lease on, replaced on every renewal
+    private final Map<String, Set<Integer>> owned = new ConcurrentHashMap<>();
+    private volatile LocalDateTime validUntil = NEVER;
+
+    public JobLeaseService(
+            JobLeaseRepository leaseRepository,
+            ClusterNodeRepository nodeRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${cluster.node-id:}") String nodeId,
+            @Value("${cluster.partitions:8}") int partitions,
+            @Value("${cluster.lease-seconds:60}") long leaseSeconds
+    ) {
+        this.leaseRepository = leaseRepository;
+        this.nodeRepository = nodeRepository;
+        this.eventPublisher = eventPublisher;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.partitions = partitions;
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+    }
+
+    // Called by jobs at construction time; leases are taken on the next renewal round
+    public void register(String jobName) {
+        owned.putIfAbsent(jobName, Set.of());
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    public static int partitionOf(long key, int partitions) {
+        return (int) Math.floorMod(key, (long) partitions);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // Empty once the last renewal is older than the lease, so a stalled node stops working
+    // on partitions that another node may already have taken over
+    public Set<Integer> ownedPartitions(String jobName) {
+        if (LocalDateTime.now().isAfter(validUntil)) {
+            return Set.of();
+        }
+        return owned.getOrDefault(jobName, Set.of());
+    }
+
+    public boolean owns(String jobName, long key) {
+        return ownedPartitions(jobName).contains(partitionOf(key, partitions));
+    }
+
+    @Scheduled(fixedDelayString = "${cluster.renew-interval-ms:20000}")
+    public void renew() {
+        int liveNodes;
+        try {
+            liveNodes = heartbeat();
+        } catch (RuntimeException e) {
+            log.error("Cluster heartbeat failed: {}", e.getMessage());
+            return;
+        }
+
+        for (String jobName : owned.keySet()) {
+            try {
+                renew(jobName, liveNodes);
+            } catch (RuntimeException e) {
+                log.error("Lease renewal for {} failed: {}", jobName, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        // Lets the remaining nodes take over right away instead of waiting for the leases to expire
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (Map.Entry<String, Set<Integer>> entry : owned.entrySet()) {
+                for (int partition : entry.getValue()) {
+                    leaseRepository.release(entry.getKey(), partition, nodeId, now);
+                }
+                entry.setValue(Set.of());
+            }
+            nodeRepository.deleteById(nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release leases of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    // Records this node as alive and returns how many nodes currently are
+    private int heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        if (nodeRepository.heartbeat(nodeId, now) == 0) {
+            nodeRepository.save(ClusterNode.builder().nodeId(nodeId).lastSeen(now).build());
+        }
+        nodeRepository.deleteStale(now.minus(leaseDuration.multipliedBy(10)));
+        return (int) Math.max(1, nodeRepository.countByLastSeenAfter(now.minus(leaseDuration)));
+    }
+
+    private void renew(String jobName, int liveNodes) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(leaseDuration);
+        List<JobLease> leases = ensurePartitions(jobName);
+        int share = (partitions + liveNodes - 1) / liveNodes;
+
+        Set<Integer> held = new TreeSet<>();
+        for (JobLease lease : leases) {
+            if (nodeId.equals(lease.getOwner())
+                    && leaseRepository.tryAcquire(jobName, lease.getPartitionNo(), nodeId, now, until) == 1) {
+                held.add(lease.getPartitionNo());
+            }
+        }
+
+        // Give back the surplus so other nodes can take it on their next round
+        for (JobLease lease : leases) {
+            if (held.size() <= share) {
+                break;
+            }
+            if (held.remove(lease.getPartitionNo())) {
+                leaseRepository.release(jobName, lease.getPartitionNo(), nodeId, now);
+            }
+        }
+
+        for (JobLease lease : leases) {
+            if (held.size() >= share) {
+                break;
+            }
+            if (!held.contains(lease.getPartitionNo())
+                    && leaseRepository.tryAcquire(jobName, lease.getPartitionNo(), nodeId, now, until) == 1) {
+                held.add(lease.getPartitionNo());
+            }
+        }
+
+        // Leave a margin so work stops before the lease can be taken by someone else
+        validUntil = until.minus(leaseDuration.dividedBy(4));
+
+        Set<Integer> previous = owned.put(jobName, Set.copyOf(held));
+        if (!held.equals(previous)) {
+            log.info("Node {} now holds {} partitions {} of {}", nodeId, jobName, held, partitions);
+            eventPublisher.publishEvent(new JobLeasesChangedEvent(jobName, Set.copyOf(held)));
+        }
+    }
+
+    private List<JobLease> ensurePartitions(String jobName) {
+        List<JobLease> leases = leaseRepository.findByJobNameOrderByPartitionNo(jobName);
+        if (leases.size() >= partitions) {
+            return leases;
+        }
+
+        Set<Integer> existing = new TreeSet<>();
+        leases.forEach(lease -> existing.add(lease.getPartitionNo()));
+        for (int partition = 0; partition < partitions; partition++) {
+            if (existing.contains(partition)) {
+                continue;
+            }
+            try {
+                leaseRepository.saveAndFlush(JobLease.builder()
+                        .jobName(jobName)
+                        .partitionNo(partition)
+                        .leaseUntil(NEVER)
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        return leaseRepository.findByJobNameOrderByPartitionNo(jobName);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.NotificationRetryStatsResponse;
+import com.example.hospital.model.Notification;
+import com.example.hospital.model.NotificationStatus;
+import com.example.hospital.repository.NotificationRepository;
+import com.example.hospital.util.Backoff;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Bucket4j;
+import io.github.bucket4j.Refill;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Retries notifications whose email failed. Each failure pushes the next attempt out
+// exponentially, with jitter so a batch that failed together does not retry together, and
+// after the last attempt the notification is parked as DEAD_LETTER. Retries draw from a token
+// bucket, so a mail server coming back from an outage gets the backlog at a steady rate.
+@Slf4j
+@Service
+public class NotificationRetryService {
+
+    private final NotificationRepository notificationRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final Duration maxAge;
+    private final Duration pendingGrace;
+    private final long sendTimeoutMillis;
+    private final Bucket bucket;
+
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    public NotificationRetryService(
+            NotificationRepository notificationRepository,
+            EmailService emailService,
+            TransactionTemplate transactionTemplate,
+            @Value("${notification-retry.batch-size:50}") int batchSize,
+            @Value("${notification-retry.max-attempts:6}") int maxAttempts,
+            @Value("${notification-retry.base-delay-seconds:30}") long baseDelaySeconds,
+            @Value("${notification-retry.max-delay-minutes:60}") long maxDelayMinutes,
+            @Value("${notification-retry.max-age-hours:24}") long maxAgeHours,
+            @Value("${notification-retry.max-per-minute:60}") long maxPerMinute,
+            @Value("${notification-retry.send-timeout-ms:30000}") long sendTimeoutMillis
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = Duration.ofSeconds(baseDelaySeconds);
+        this.maxDelay = Duration.ofMinutes(maxDelayMinutes);
+        this.maxAge = Duration.ofHours(maxAgeHours);
+        this.pendingGrace = Duration.ofMinutes(5);
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.bucket = Bucket4j.builder()
+                .addLimit(Bandwidth.classic(maxPerMinute, Refill.greedy(maxPerMinute, Duration.ofMinutes(1))))
+                .build();
+    }
+
+    // Counts one failed attempt and decides when, or whether, to try again
+    public void recordFailure(Notification notification, String error) {
+        int attempts = notification.getAttempts() + 1;
+        notification.setAttempts(attempts);
+        notification.setLastError(error != null && error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (attempts >= maxAttempts) {
+            notification.setStatus(NotificationStatus.DEAD_LETTER);
+            notification.setNextAttemptAt(null);
+            log.error("Notification {} to {} dead-lettered after {} attempts: {}",
+                    notification.getId(), notification.getUser().getEmail(), attempts, error);
+        } else {
+            notification.setStatus(NotificationStatus.FAILED);
+            notification.setNextAttemptAt(LocalDateTime.now().plus(Backoff.equalJitter(baseDelay, maxDelay, attempts)));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification-retry.poll-interval-ms:5000}")
+    public void retryDue() {
+        lastRunAt = LocalDateTime.now();
+        // Keep going while full batches succeed and the bucket has tokens left
+        int sent;
+        do {
+            sent = transactionTemplate.execute(status -> retryBatch());
+        } while (sent == batchSize);
+    }
+
+    public NotificationRetryStatsResponse stats() {
+        return NotificationRetryStatsResponse.builder()
+                .awaitingRetry(notificationRepository.countByStatus(NotificationStatus.FAILED))
+                .deadLettered(notificationRepository.countByStatus(NotificationStatus.DEAD_LETTER))
+                .retried(retried.get())
+                .recovered(recovered.get())
+                .rateLimited(rateLimited.get())
+                .availableTokens(bucket.getAvailableTokens())
+                .lastRunAt(lastRunAt)
+                .build();
+    }
+
+    // Rows stay locked until the batch commits, so each notification is retried by a single worker
+    private int retryBatch() {
+        long tokens = bucket.getAvailableTokens();
+        if (tokens <= 0) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> batch = notificationRepository.claimRetryBatch(
+                NotificationStatus.FAILED,
+                NotificationStatus.PENDING,
+                now,
+                now.minus(pendingGrace),
+                PageRequest.of(0, (int) Math.min(batchSize, tokens))
+        );
+
+        List<Notification> sending = new ArrayList<>(batch.size());
+        List<CompletableFuture<Void>> results = new ArrayList<>(batch.size());
+        for (Notification notification : batch) {
+            if (notification.getSentAt() != null && notification.getSentAt().isBefore(now.minus(maxAge))) {
+                // A reminder that arrives a day late does more harm than good
+                notification.setStatus(NotificationStatus.DEAD_LETTER);
+                notification.setNextAttemptAt(null);
+                continue;
+            }
+            if (!bucket.tryConsume(1)) {
+                // Left as it is and picked up again once the bucket refills
+                rateLimited.incrementAndGet();
+                break;
+            }
+            sending.add(notification);
+            results.add(emailService.sendEmailAsync(
+                    notification.getUser().getEmail(),
+                    notification.getSubject(),
+                    notification.getMessage()
+            ));
+        }
+
+        // The claimed rows stay locked while we wait, so the wait on the mail server is bounded
+        int sent = 0;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        for (int i = 0; i < sending.size(); i++) {
+            Notification notification = sending.get(i);
+            retried.incrementAndGet();
+            try {
+                results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                notification.setStatus(NotificationStatus.SENT);
+                notification.setNextAttemptAt(null);
+                recovered.incrementAndGet();
+                sent++;
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                recordFailure(notification, cause.getMessage());
+            } catch (TimeoutException e) {
+                // The message may still go out later; a retry can then deliver it twice
+                recordFailure(notification, "Timed out waiting for the mail server");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                recordFailure(notification, "Interrupted while waiting for the mail server");
+            }
+        }
+
+        if (!sending.isEmpty()) {
+            log.info("Retried {} notifications, {} delivered", sending.size(), sent);
+        }
+        // A failure ends this round; the rest waits for the next poll
+        return sent;
+    }
+}
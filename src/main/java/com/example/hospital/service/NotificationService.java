@@ -1,5 +1,6 @@
 package com.example.hospital.service;
 
+import com.example.hospital.dto.NotificationPageResponse;
 import com.example.hospital.model.Notification;
 import com.example.hospital.model.NotificationStatus;
 import com.example.hospital.model.NotificationType;
@@ -7,10 +8,19 @@ import com.example.hospital.model.User;
 import com.example.hospital.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 
 @Slf4j
@@ -20,6 +30,10 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final EmailService emailService;
+    private final NotificationWriteBuffer writeBuffer;
+    private final UnreadCounterService unreadCounterService;
+    private final NotificationStreamRegistry streamRegistry;
+    private final NotificationRetryService retryService;
 
     @Async
     public void sendNotification(
@@ -44,18 +58,95 @@ public class NotificationService {
             notification.setStatus(NotificationStatus.SENT);
             log.info("Notification sent successfully to {}", user.getEmail());
         } catch (Exception e) {
-            notification.setStatus(NotificationStatus.FAILED);
+            // Picked up by the retry worker once its backoff has passed
+            retryService.recordFailure(notification, e.getMessage());
             log.error("Failed to send notification to {}: {}", user.getEmail(), e.getMessage());
         }
 
-        notificationRepository.save(notification);
+        // Written in batches by the buffer instead of one insert per notification
+        writeBuffer.add(notification);
     }
 
-    public List<Notification> getUserNotifications(User user) {
-        return notificationRepository.findByUserOrderBySentAtDesc(user);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Keyset pagination on (sentAt, id): each page is an index range scan, however deep
+    public NotificationPageResponse getInbox(User user, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        PageRequest page = PageRequest.of(0, pageSize);
+
+        List<Notification> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = notificationRepository.findInboxPage(user, page);
+        } else {
+            InboxCursor position = InboxCursor.decode(cursor);
+            items = notificationRepository.findInboxPageBefore(user, position.sentAt(), position.id(), page);
+        }
+
+        String nextCursor = null;
+        if (items.size() == pageSize) {
+            Notification last = items.get(items.size() - 1);
+            nextCursor = new InboxCursor(last.getSentAt(), last.getId()).encode();
+        }
+
+        return NotificationPageResponse.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .unreadCount(unreadCounterService.unreadCount(user.getId()))
+                .build();
     }
 
     public long getUnreadNotificationCount(User user) {
-        return notificationRepository.countByUserAndStatus(user, NotificationStatus.SENT);
+        return unreadCounterService.unreadCount(user.getId());
+    }
+
+    @Transactional
+    public void markRead(User user, Long notificationId) {
+        int updated = notificationRepository.markRead(notificationId, user.getId(), LocalDateTime.now());
+        if (updated == 0 && !notificationRepository.existsByIdAndUser(notificationId, user)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification not found");
+        }
+        unreadCounterService.recordRead(user.getId(), updated);
+        pushUnreadCountAfterCommit(user.getId(), updated);
+    }
+
+    @Transactional
+    public void markAllRead(User user) {
+        int updated = notificationRepository.markAllRead(user.getId(), LocalDateTime.now());
+        unreadCounterService.recordRead(user.getId(), updated);
+        pushUnreadCountAfterCommit(user.getId(), updated);
+    }
+
+    public SseEmitter openStream(User user) {
+        return streamRegistry.subscribe(user.getId());
+    }
+
+    // Other open tabs of the same user see the new count once the update is visible
+    private void pushUnreadCountAfterCommit(Long userId, int updated) {
+        if (updated == 0) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                streamRegistry.publishUnreadCount(userId);
+            }
+        });
+    }
+
+    private record InboxCursor(LocalDateTime sentAt, Long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((sentAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static InboxCursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                return new InboxCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
     }
 }
@@ -0,0 +1,234 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.NotificationPushMessage;
+import com.example.hospital.event.NotificationsStoredEvent;
+import com.example.hospital.model.Notification;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Open notification streams per user. Each connection has its own bounded buffer drained by a
+// small shared pool, so one slow client never holds up delivery to the others; when a buffer
+// is full the oldest event is dropped, and the unread count that follows every batch lets the
+// client catch up.
+// Stored-notification events only reach the node that wrote the batch, so the unread counters
+// of users streaming from this node are also polled and pushed when they change: notifications
+// written on other nodes show up as an unread-count event, and the client loads the inbox.
+@Slf4j
+@Component
+public class NotificationStreamRegistry {
+
+    private static final int POLL_BATCH_SIZE = 500;
+
+    private final UnreadCounterService unreadCounterService;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxStreamsPerUser;
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    // Last unread count pushed per user, so polling only pushes counts that changed
+    private final Map<Long, Long> lastUnread = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "notification-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public NotificationStreamRegistry(
+            UnreadCounterService unreadCounterService,
+            @Value("${notification-stream.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${notification-stream.buffer-size:32}") int bufferSize,
+            @Value("${notification-stream.max-per-user:5}") int maxStreamsPerUser
+    ) {
+        this.unreadCounterService = unreadCounterService;
+        this.timeoutMillis = timeoutMinutes * 60_000;
+        this.bufferSize = bufferSize;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+    }
+
+    // Clients reconnect when the emitter times out; the first event is always the unread count
+    public SseEmitter subscribe(Long userId) {
+        Subscriber subscriber = new Subscriber(userId, new SseEmitter(timeoutMillis), new ArrayBlockingQueue<>(bufferSize));
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+
+        List<Subscriber> streams = subscribers.computeIfAbsent(userId, key -> new CopyOnWriteArrayList<>());
+        streams.add(subscriber);
+        connections.incrementAndGet();
+        // A user who keeps opening tabs only keeps the newest few streams
+        while (streams.size() > maxStreamsPerUser) {
+            Subscriber oldest = streams.get(0);
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+
+        long unread = unreadCounterService.unreadCount(userId);
+        lastUnread.put(userId, unread);
+        enqueue(subscriber, () -> SseEmitter.event().name("unread-count").data(unread));
+        return emitter;
+    }
+
+    @EventListener
+    public void onNotificationsStored(NotificationsStoredEvent event) {
+        Map<Long, List<Notification>> byUser = event.notifications().stream()
+                .filter(notification -> subscribers.containsKey(notification.getUser().getId()))
+                .collect(Collectors.groupingBy(notification -> notification.getUser().getId()));
+
+        for (Map.Entry<Long, List<Notification>> entry : byUser.entrySet()) {
+            for (Notification notification : entry.getValue()) {
+                NotificationPushMessage message = toMessage(notification);
+                publish(entry.getKey(), () -> SseEmitter.event()
+                        .id(String.valueOf(message.getId()))
+                        .name("notification")
+                        .data(message));
+            }
+            publishUnreadCount(entry.getKey());
+        }
+    }
+
+    public void publishUnreadCount(Long userId) {
+        if (subscribers.containsKey(userId)) {
+            pushUnreadCount(userId, unreadCounterService.unreadCount(userId));
+        }
+    }
+
+    // Picks up notifications written and read on other nodes
+    @Scheduled(fixedDelayString = "${notification-stream.poll-interval-ms:5000}")
+    public void pollUnreadCounts() {
+        lastUnread.keySet().retainAll(subscribers.keySet());
+        List<Long> userIds = List.copyOf(subscribers.keySet());
+        for (int from = 0; from < userIds.size(); from += POLL_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + POLL_BATCH_SIZE, userIds.size()));
+            unreadCounterService.unreadCounts(batch).forEach((userId, unread) -> {
+                if (!unread.equals(lastUnread.get(userId))) {
+                    pushUnreadCount(userId, unread);
+                }
+            });
+        }
+    }
+
+    public int openStreams() {
+        return connections.get();
+    }
+
+    // Keeps idle connections from being closed by proxies and detects dead clients
+    @Scheduled(fixedRateString = "${notification-stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (List<Subscriber> streams : subscribers.values()) {
+            for (Subscriber subscriber : streams) {
+                enqueue(subscriber, () -> SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(subscriber -> subscriber.emitter.complete()));
+        subscribers.clear();
+        lastUnread.clear();
+        senders.shutdownNow();
+    }
+
+    private void pushUnreadCount(Long userId, long unread) {
+        lastUnread.put(userId, unread);
+        publish(userId, () -> SseEmitter.event().name("unread-count").data(unread));
+    }
+
+    // Events are passed as suppliers: an SseEventBuilder is mutated when it is sent, so every
+    // stream has to build its own
+    private void publish(Long userId, Supplier<SseEmitter.SseEventBuilder> event) {
+        for (Subscriber subscriber : subscribers.getOrDefault(userId, List.of())) {
+            enqueue(subscriber, event);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        while (!subscriber.buffer.offer(event)) {
+            subscriber.buffer.poll();
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Supplier<SseEmitter.SseEventBuilder> event;
+            while ((event = subscriber.buffer.poll()) != null) {
+                try {
+                    subscriber.emitter.send(event.get());
+                } catch (IOException | RuntimeException e) {
+                    // IOException and IllegalStateException mean the client is gone; anything
+                    // else is unexpected, so close the stream and let the client reconnect
+                    if (!(e instanceof IOException) && !(e instanceof IllegalStateException)) {
+                        log.warn("Closing notification stream for user {}: {}", subscriber.userId, e.toString());
+                        subscriber.emitter.complete();
+                    }
+                    remove(subscriber);
+                    subscriber.buffer.clear();
+                    subscriber.draining.set(false);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+            // An event may have arrived after the last poll but before the flag was cleared
+            if (subscriber.buffer.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        List<Subscriber> streams = subscribers.get(subscriber.userId);
+        if (streams != null && streams.remove(subscriber)) {
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(subscriber.userId, (key, current) -> current.isEmpty() ? null : current);
+        }
+    }
+
+    private NotificationPushMessage toMessage(Notification notification) {
+        return NotificationPushMessage.builder()
+                .id(notification.getId())
+                .type(notification.getType())
+                .subject(notification.getSubject())
+                .message(notification.getMessage())
+                .sentAt(notification.getSentAt())
+                .relatedAppointmentId(notification.getRelatedAppointmentId())
+                .build();
+    }
+
+    private static final class Subscriber {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, Queue<Supplier<SseEmitter.SseEventBuilder>> buffer) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.NotificationBufferStatsResponse;
+import com.example.hospital.event.NotificationsStoredEvent;
+import com.example.hospital.model.Notification;
+import com.example.hospital.repository.NotificationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind buffer for notification rows. Records are collected in memory and written with
+// one saveAll per batch, which Hibernate sends as JDBC batches thanks to sequence ids. A flush
+// happens when the buffer reaches the batch size, on a timer, and on shutdown.
+@Slf4j
+@Component
+public class NotificationWriteBuffer {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCounterService unreadCounterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxBuffered;
+
+    private final Object lock = new Object();
+    private List<Notification> buffer = new ArrayList<>();
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong flushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+
+    public NotificationWriteBuffer(
+            NotificationRepository notificationRepository,
+            UnreadCounterService unreadCounterService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${notification-buffer.batch-size:100}") int batchSize,
+            @Value("${notification-buffer.max-buffered:10000}") int maxBuffered
+    ) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounterService = unreadCounterService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxBuffered = maxBuffered;
+    }
+
+    public void add(Notification notification) {
+        boolean full;
+        synchronized (lock) {
+            buffer.add(notification);
+            full = buffer.size() >= batchSize;
+        }
+        // The thread that fills a batch writes it, so a burst never waits for the timer
+        if (full) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification-buffer.flush-interval-ms:500}")
+    public void flush() {
+        List<Notification> batch;
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            batch = buffer;
+            buffer = new ArrayList<>();
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Rows and unread counters commit together
+            transactionTemplate.executeWithoutResult(status -> {
+                notificationRepository.saveAll(batch);
+                unreadCounterService.recordInserted(batch);
+            });
+            written.addAndGet(batch.size());
+            lastFlushAt = LocalDateTime.now();
+        } catch (RuntimeException e) {
+            failedFlushes.incrementAndGet();
+            log.error("Failed to write {} notifications: {}", batch.size(), e.getMessage());
+            requeue(batch);
+            return;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            flushes.incrementAndGet();
+            flushNanos.addAndGet(nanos);
+            maxFlushNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        // Only committed rows are pushed to open streams, with their ids and counters in place
+        try {
+            eventPublisher.publishEvent(new NotificationsStoredEvent(List.copyOf(batch)));
+        } catch (RuntimeException e) {
+            log.warn("Failed to push {} notifications to open streams: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    // Drains everything still buffered before the repository goes away
+    @PreDestroy
+    public void flushAll() {
+        int remaining;
+        do {
+            long failuresBefore = failedFlushes.get();
+            flush();
+            synchronized (lock) {
+                remaining = buffer.size();
+            }
+            if (failedFlushes.get() != failuresBefore) {
+                log.error("Dropping {} buffered notifications on shutdown", remaining);
+                return;
+            }
+        } while (remaining > 0);
+    }
+
+    public NotificationBufferStatsResponse stats() {
+        long flushCount = flushes.get();
+        int buffered;
+        synchronized (lock) {
+            buffered = buffer.size();
+        }
+
+        return NotificationBufferStatsResponse.builder()
+                .buffered(buffered)
+                .written(written.get())
+                .flushes(flushCount)
+                .failedFlushes(failedFlushes.get())
+                .averageFlushMillis(flushCount == 0 ? 0 : flushNanos.get() / 1_000_000.0 / flushCount)
+                .maxFlushMillis(TimeUnit.NANOSECONDS.toMillis(maxFlushNanos.get()))
+                .lastFlushAt(lastFlushAt)
+                .build();
+    }
+
+    // A failed batch goes back in front of newer records, up to the buffer limit. The rollback
+    // leaves the sequence ids saveAll assigned in place; with an id set the retry would merge
+    // instead of persist and fail on the missing row, so the ids are cleared first.
+    private void requeue(List<Notification> batch) {
+        batch.forEach(notification -> notification.setId(null));
+        synchronized (lock) {
+            List<Notification> merged = new ArrayList<>(batch.size() + buffer.size());
+            merged.addAll(batch);
+            merged.addAll(buffer);
+            if (merged.size() > maxBuffered) {
+                log.error("Notification buffer full, dropping {} oldest records", merged.size() - maxBuffered);
+                merged = new ArrayList<>(merged.subList(merged.size() - maxBuffered, merged.size()));
+            }
+            buffer = merged;
+        }
+    }
+}
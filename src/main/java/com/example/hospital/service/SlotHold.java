@@ -0,0 +1,24 @@
+package com.example.hospital.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// A temporary in-memory reservation of one doctor slot for one patient
+public record SlotHold(
+        String holdId,
+        Long doctorId,
+        LocalDate date,
+        LocalTime time,
+        String patientEmail,
+        Instant expiresAt
+) {
+
+    public boolean isActive(Instant now) {
+        return expiresAt.isAfter(now);
+    }
+
+    public boolean isHeldBy(String email) {
+        return patientEmail.equalsIgnoreCase(email);
+    }
+}
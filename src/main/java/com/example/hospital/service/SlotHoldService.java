@@ -0,0 +1,177 @@
+package com.example.hospital.service;
+
+import com.example.hospital.event.SlotHoldLapsedEvent;
+import com.example.hospital.util.TimerWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class SlotHoldService {
+
+    private final SlotOccupancyIndex occupancyIndex;
+    private final BookingLocks bookingLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration defaultTtl;
+    private final int maxHoldsPerPatient;
+
+    // (doctorId, date) -> immutable snapshot of that day's holds, replaced on every change,
+    // so slot listings read a whole day with one lookup and no locking
+    private final Map<DayKey, Map<LocalTime, SlotHold>> holdsByDay = new ConcurrentHashMap<>();
+    private final Map<String, SlotHold> holdsById = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> holdsPerPatient = new ConcurrentHashMap<>();
+    private final TimerWheel<SlotHold> expiryWheel = new TimerWheel<>(1000, 1024, System.currentTimeMillis());
+
+    public SlotHoldService(
+            SlotOccupancyIndex occupancyIndex,
+            BookingLocks bookingLocks,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${slot-hold.ttl-minutes:5}") long ttlMinutes,
+            @Value("${slot-hold.max-per-patient:3}") int maxHoldsPerPatient
+    ) {
+        this.occupancyIndex = occupancyIndex;
+        this.bookingLocks = bookingLocks;
+        this.eventPublisher = eventPublisher;
+        this.defaultTtl = Duration.ofMinutes(ttlMinutes);
+        this.maxHoldsPerPatient = maxHoldsPerPatient;
+    }
+
+    public SlotHold hold(Long doctorId, LocalDate date, LocalTime time, String patientEmail) {
+        return hold(doctorId, date, time, patientEmail, defaultTtl);
+    }
+
+    // Taken under the booking lock so a hold and a booking for the same slot cannot interleave
+    public SlotHold hold(Long doctorId, LocalDate date, LocalTime time, String patientEmail, Duration ttl) {
+        return bookingLocks.withLock(doctorId, date, () -> {
+            if (occupancyIndex.isBooked(doctorId, date, time)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "This time slot is already booked");
+            }
+
+            Instant now = Instant.now();
+            SlotHold existing = activeHold(doctorId, date, time, now);
+            if (existing != null) {
+                if (existing.isHeldBy(patientEmail)) {
+                    return existing;
+                }
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "This slot is temporarily held by another patient");
+            }
+
+            AtomicInteger patientHolds = holdsPerPatient.computeIfAbsent(patientEmail.toLowerCase(), key -> new AtomicInteger());
+            if (patientHolds.incrementAndGet() > maxHoldsPerPatient) {
+                patientHolds.decrementAndGet();
+                throw new ResponseStatusException(
+                        HttpStatus.TOO_MANY_REQUESTS,
+                        "You can hold at most " + maxHoldsPerPatient + " slots at a time"
+                );
+            }
+
+            SlotHold hold = new SlotHold(
+                    UUID.randomUUID().toString(),
+                    doctorId,
+                    date,
+                    time,
+                    patientEmail,
+                    now.plus(ttl)
+            );
+
+            holdsByDay.compute(new DayKey(doctorId, date), (key, day) -> {
+                Map<LocalTime, SlotHold> updated = day == null ? new HashMap<>() : new HashMap<>(day);
+                updated.put(time, hold);
+                return Map.copyOf(updated);
+            });
+            holdsById.put(hold.holdId(), hold);
+            expiryWheel.schedule(hold, hold.expiresAt().toEpochMilli());
+            return hold;
+        });
+    }
+
+    public void release(String holdId, String patientEmail) {
+        SlotHold hold = holdsById.get(holdId);
+        if (hold == null || !hold.isHeldBy(patientEmail)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Hold not found");
+        }
+        if (remove(hold)) {
+            eventPublisher.publishEvent(new SlotHoldLapsedEvent(hold));
+        }
+    }
+
+    // Called after a successful booking so the patient's own hold does not linger
+    public void consume(Long doctorId, LocalDate date, LocalTime time, String patientEmail) {
+        SlotHold hold = holdsByDay.getOrDefault(new DayKey(doctorId, date), Map.of()).get(time);
+        if (hold != null && hold.isHeldBy(patientEmail)) {
+            remove(hold);
+        }
+    }
+
+    public boolean isHeldByOther(Long doctorId, LocalDate date, LocalTime time, String patientEmail) {
+        SlotHold hold = activeHold(doctorId, date, time, Instant.now());
+        return hold != null && !hold.isHeldBy(patientEmail);
+    }
+
+    // Snapshot of a day's holds; callers must still check isActive for exact expiry
+    public Map<LocalTime, SlotHold> holdsFor(Long doctorId, LocalDate date) {
+        return holdsByDay.getOrDefault(new DayKey(doctorId, date), Map.of());
+    }
+
+    public int activeHolds() {
+        return holdsById.size();
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void expireHolds() {
+        List<SlotHold> expired = expiryWheel.advance(System.currentTimeMillis());
+        for (SlotHold hold : expired) {
+            if (remove(hold)) {
+                eventPublisher.publishEvent(new SlotHoldLapsedEvent(hold));
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.debug("Expired {} slot holds", expired.size());
+        }
+    }
+
+    private SlotHold activeHold(Long doctorId, LocalDate date, LocalTime time, Instant now) {
+        SlotHold hold = holdsFor(doctorId, date).get(time);
+        return hold != null && hold.isActive(now) ? hold : null;
+    }
+
+    // Returns false if the hold was already gone (consumed, released or expired)
+    private boolean remove(SlotHold hold) {
+        // Only the call that actually removes the hold adjusts the per-patient count
+        if (!holdsById.remove(hold.holdId(), hold)) {
+            return false;
+        }
+
+        holdsByDay.computeIfPresent(new DayKey(hold.doctorId(), hold.date()), (key, day) -> {
+            if (day.get(hold.time()) != hold) {
+                return day;
+            }
+            Map<LocalTime, SlotHold> updated = new HashMap<>(day);
+            updated.remove(hold.time());
+            return updated.isEmpty() ? null : Map.copyOf(updated);
+        });
+
+        holdsPerPatient.computeIfPresent(hold.patientEmail().toLowerCase(), (key, count) ->
+                count.decrementAndGet() <= 0 ? null : count);
+        return true;
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.BookedSlotView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class SlotOccupancyIndex {
+
+    private final AppointmentRepository appointmentRepository;
+
+    // (doctorId, date) -> booked slots. Entries are loaded with one query on first
+    // read and then kept current by AppointmentService on every booking change.
+    // Bounded and dropped when idle, since far-future days would otherwise pile up.
+    private final ConcurrentMap<OccupancyKey, DayOccupancy> index;
+
+    // Bumped before every booking change so loads can tell whether they raced one
+    private final AtomicLong writes = new AtomicLong();
+
+    public SlotOccupancyIndex(
+            AppointmentRepository appointmentRepository,
+            @Value("${caches.slot-occupancy.max-size:50000}") long maxSize,
+            @Value("${caches.slot-occupancy.idle-minutes:60}") long idleMinutes
+    ) {
+        this.appointmentRepository = appointmentRepository;
+        Cache<OccupancyKey, DayOccupancy> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+        this.index = cache.asMap();
+    }
+
+    public DayOccupancy get(Long doctorId, LocalDate date) {
+        OccupancyKey key = new OccupancyKey(doctorId, date);
+        DayOccupancy cached = index.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The query runs outside the map so it never holds a lock other keys may need
+        long writesBefore = writes.get();
+        return cacheIfUnchanged(key, load(key), writesBefore);
+    }
+
+    // Loads every missing day of the range with a single query
+    public Map<LocalDate, DayOccupancy> getRange(Long doctorId, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> missing = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            if (!index.containsKey(new OccupancyKey(doctorId, date))) {
+                missing.add(date);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long writesBefore = writes.get();
+            Map<LocalDate, List<LocalTime>> bookedByDate = appointmentRepository
+                    .findSlotsByDoctorAndDateRange(
+                            doctorId,
+                            missing.get(0),
+                            missing.get(missing.size() - 1),
+                            AppointmentStatus.BOOKED
+                    )
+                    .stream()
+                    .collect(Collectors.groupingBy(
+                            BookedSlotView::getAppointmentDate,
+                            HashMap::new,
+                            Collectors.mapping(BookedSlotView::getAppointmentTime, Collectors.toList())
+                    ));
+
+            for (LocalDate date : missing) {
+                // If a booking changed while the range query ran, get() below loads the day again
+                cacheIfUnchanged(
+                        new OccupancyKey(doctorId, date),
+                        DayOccupancy.of(bookedByDate.getOrDefault(date, List.of())),
+                        writesBefore
+                );
+            }
+        }
+
+        Map<LocalDate, DayOccupancy> range = new LinkedHashMap<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            range.put(date, get(doctorId, date));
+        }
+        return range;
+    }
+
+    public boolean isBooked(Long doctorId, LocalDate date, LocalTime time) {
+        return get(doctorId, date).isBooked(time);
+    }
+
+    // Days that are not loaded yet will read the new state from the database anyway
+    public void markBooked(Long doctorId, LocalDate date, LocalTime time) {
+        writes.incrementAndGet();
+        index.computeIfPresent(new OccupancyKey(doctorId, date), (key, day) -> day.with(time));
+    }
+
+    public void release(Long doctorId, LocalDate date, LocalTime time) {
+        writes.incrementAndGet();
+        index.computeIfPresent(new OccupancyKey(doctorId, date), (key, day) -> day.without(time));
+    }
+
+    // Consistency check: compares the cached day with AppointmentRepository and repairs it
+    public boolean verify(Long doctorId, LocalDate date) {
+        OccupancyKey key = new OccupancyKey(doctorId, date);
+        DayOccupancy cached = index.get(key);
+        if (cached == null) {
+            return true;
+        }
+
+        long writesBefore = writes.get();
+        DayOccupancy actual = load(key);
+        if (actual.equals(cached) || writes.get() != writesBefore) {
+            // A booking that raced the query is checked again on the next run
+            return true;
+        }
+
+        log.warn("Slot occupancy index out of sync for doctor {} on {}: cached {} booked, database {}",
+                doctorId, date, cached.bookedCount(), actual.bookedCount());
+        if (!index.replace(key, cached, actual) || writes.get() != writesBefore) {
+            // Lost to a booking change; drop the day so the next read loads it fresh
+            index.remove(key);
+        }
+        return false;
+    }
+
+    // Run every 10 minutes
+    @Scheduled(fixedDelay = 600000)
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        int checked = 0;
+        int repaired = 0;
+
+        for (OccupancyKey key : index.keySet()) {
+            if (key.date().isBefore(today)) {
+                index.remove(key);
+                continue;
+            }
+            checked++;
+            if (!verify(key.doctorId(), key.date())) {
+                repaired++;
+            }
+        }
+
+        log.info("Slot occupancy index reconciled: {} days checked, {} repaired", checked, repaired);
+    }
+
+    // Caches a day read from the database unless a booking changed since the read started.
+    // markBooked/release skip days that are not cached, so a stale read must never be kept:
+    // a change that lands after the put updates the entry, one that landed before removes it.
+    private DayOccupancy cacheIfUnchanged(OccupancyKey key, DayOccupancy loaded, long writesBefore) {
+        if (writes.get() != writesBefore) {
+            return loaded;
+        }
+        DayOccupancy existing = index.putIfAbsent(key, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        if (writes.get() != writesBefore) {
+            index.remove(key, loaded);
+        }
+        return loaded;
+    }
+
+    private DayOccupancy load(OccupancyKey key) {
+        List<BookedSlotView> booked = appointmentRepository.findSlotsByDoctorAndDateRange(
+                key.doctorId(),
+                key.date(),
+                key.date(),
+                AppointmentStatus.BOOKED
+        );
+        return DayOccupancy.of(booked.stream().map(BookedSlotView::getAppointmentTime).toList());
+    }
+
+    private record OccupancyKey(Long doctorId, LocalDate date) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.FirstAvailableSlotResponse;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.DoctorLeave;
+import com.example.hospital.repository.DoctorLeaveRepository;
+import com.example.hospital.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class SlotSearchService {
+
+    private static final int MAX_HORIZON_DAYS = 62;
+    private static final int MAX_RESULTS = 50;
+
+    private static final Comparator<DoctorSlotCursor> EARLIEST_FIRST = Comparator
+            .comparing((DoctorSlotCursor cursor) -> cursor.date)
+            .thenComparing(cursor -> cursor.currentTime())
+            .thenComparing(cursor -> cursor.doctor.getId());
+
+    private final DoctorRepository doctorRepository;
+    private final WeeklyScheduleService weeklyScheduleService;
+    private final DoctorLeaveRepository leaveRepository;
+    private final SlotOccupancyIndex occupancyIndex;
+    private final SlotHoldService slotHoldService;
+
+    // K-way merge of each doctor's free-slot stream; days are only expanded when a
+    // doctor's cursor reaches them, so the search stops as soon as enough slots are found
+    public List<FirstAvailableSlotResponse> findEarliestSlots(
+            String specialization,
+            LocalDate startDate,
+            int horizonDays,
+            int limit
+    ) {
+        if (horizonDays < 1 || horizonDays > MAX_HORIZON_DAYS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Search horizon must be between 1 and " + MAX_HORIZON_DAYS + " days"
+            );
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Limit must be between 1 and " + MAX_RESULTS
+            );
+        }
+
+        List<Doctor> doctors = doctorRepository.findBySpecializationIgnoreCase(specialization);
+        if (doctors.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        LocalDate endDate = startDate.plusDays(horizonDays - 1L);
+
+        Map<Long, WeeklySchedule> schedules = weeklyScheduleService.getSchedules(doctors);
+
+        Map<Long, Set<LocalDate>> leavesByDoctor = leaveRepository
+                .findByDoctorInAndLeaveDateBetween(doctors, startDate, endDate)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        leave -> leave.getDoctor().getId(),
+                        Collectors.mapping(DoctorLeave::getLeaveDate, Collectors.toSet())
+                ));
+
+        LocalDateTime now = LocalDateTime.now();
+        PriorityQueue<DoctorSlotCursor> queue = new PriorityQueue<>(EARLIEST_FIRST);
+
+        for (Doctor doctor : doctors) {
+            DoctorSlotCursor cursor = new DoctorSlotCursor(
+                    doctor,
+                    schedules.get(doctor.getId()),
+                    leavesByDoctor.getOrDefault(doctor.getId(), Set.of()),
+                    startDate,
+                    endDate,
+                    now
+            );
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        List<FirstAvailableSlotResponse> results = new ArrayList<>();
+        while (!queue.isEmpty() && results.size() < limit) {
+            DoctorSlotCursor cursor = queue.poll();
+
+            results.add(FirstAvailableSlotResponse.builder()
+                    .doctorId(cursor.doctor.getId())
+                    .doctorName(cursor.doctor.getName())
+                    .specialization(cursor.doctor.getSpecialization())
+                    .date(cursor.date)
+                    .slotTime(cursor.currentTime())
+                    .build());
+
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        return results;
+    }
+
+    // Walks one doctor's free slots in time order, loading a day's bookings only when reached
+    private final class DoctorSlotCursor {
+
+        private final Doctor doctor;
+        private final WeeklySchedule schedule;
+        private final Set<LocalDate> leaveDates;
+        private final LocalDate endDate;
+        private final LocalDateTime now;
+
+        private LocalDate date;
+        private List<LocalTime> daySlots = List.of();
+        private int position = -1;
+
+        private DoctorSlotCursor(
+                Doctor doctor,
+                WeeklySchedule schedule,
+                Set<LocalDate> leaveDates,
+                LocalDate startDate,
+                LocalDate endDate,
+                LocalDateTime now
+        ) {
+            this.doctor = doctor;
+            this.schedule = schedule;
+            this.leaveDates = leaveDates;
+            this.date = startDate.minusDays(1);
+            this.endDate = endDate;
+            this.now = now;
+        }
+
+        private LocalTime currentTime() {
+            return daySlots.get(position);
+        }
+
+        // Moves to the next free slot; returns false once the horizon is exhausted
+        private boolean advance() {
+            position++;
+            while (position >= daySlots.size()) {
+                date = date.plusDays(1);
+                if (date.isAfter(endDate)) {
+                    return false;
+                }
+                daySlots = freeSlots(date);
+                position = 0;
+            }
+            return true;
+        }
+
+        private List<LocalTime> freeSlots(LocalDate day) {
+            if (leaveDates.contains(day) || day.isBefore(now.toLocalDate())) {
+                return List.of();
+            }
+
+            WeeklySchedule.DaySchedule daySchedule = schedule.day(day.getDayOfWeek());
+            if (daySchedule.isEmpty()) {
+                return List.of();
+            }
+
+            DayOccupancy occupancy = occupancyIndex.get(doctor.getId(), day);
+            Map<LocalTime, SlotHold> holds = slotHoldService.holdsFor(doctor.getId(), day);
+            Instant holdCutoff = Instant.now();
+            boolean today = day.equals(now.toLocalDate());
+
+            List<LocalTime> free = new ArrayList<>();
+            for (int i = 0; i < daySchedule.size(); i++) {
+                LocalTime slot = daySchedule.timeAt(i);
+                SlotHold hold = holds.get(slot);
+                boolean held = hold != null && hold.isActive(holdCutoff);
+                if (!occupancy.isBooked(daySchedule.minuteAt(i)) && !held && !(today && slot.isBefore(now.toLocalTime()))) {
+                    free.add(slot);
+                }
+            }
+            return free;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.Notification;
+import com.example.hospital.repository.NotificationUnreadCounterRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Per-user unread counts, changed in the same transaction as the notification rows they count
+@Service
+public class UnreadCounterService {
+
+    private final NotificationUnreadCounterRepository counterRepository;
+    private final TransactionTemplate separateTransaction;
+
+    public UnreadCounterService(
+            NotificationUnreadCounterRepository counterRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.counterRepository = counterRepository;
+        this.separateTransaction = new TransactionTemplate(transactionManager);
+        this.separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long unreadCount(Long userId) {
+        return counterRepository.findById(userId)
+                .map(counter -> Math.max(0, counter.getUnreadCount()))
+                .orElse(0L);
+    }
+
+    // Users without a counter row are reported as zero
+    public Map<Long, Long> unreadCounts(Collection<Long> userIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        userIds.forEach(userId -> counts.put(userId, 0L));
+        counterRepository.findAllById(userIds)
+                .forEach(counter -> counts.put(counter.getUserId(), Math.max(0, counter.getUnreadCount())));
+        return counts;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInserted(List<Notification> notifications) {
+        Map<Long, Long> unreadByUser = notifications.stream()
+                .filter(notification -> !notification.isRead())
+                .collect(Collectors.groupingBy(notification -> notification.getUser().getId(), Collectors.counting()));
+        if (unreadByUser.isEmpty()) {
+            return;
+        }
+
+        createMissing(unreadByUser.keySet());
+        unreadByUser.forEach(counterRepository::add);
+    }
+
+    // A user's first counter row is created with zero in its own short transaction, so two
+    // flushes that both carry that user's first notification cannot fail each other: the loser's
+    // insert hits the primary key and is ignored, and both then apply a relative update.
+    private void createMissing(Set<Long> userIds) {
+        Set<Long> missing = new HashSet<>(userIds);
+        counterRepository.findAllById(userIds).forEach(counter -> missing.remove(counter.getUserId()));
+
+        for (Long userId : missing) {
+            try {
+                separateTransaction.executeWithoutResult(status -> counterRepository.createEmpty(userId));
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently by another flush
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRead(Long userId, long count) {
+        if (count > 0) {
+            counterRepository.add(userId, -count);
+        }
+    }
+}
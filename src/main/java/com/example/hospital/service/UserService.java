@@ -2,11 +2,13 @@ package com.example.hospital.service;
 
 import com.example.hospital.dto.LoginRequest;
 import com.example.hospital.dto.RegisterRequest;
+import com.example.hospital.event.UserRegisteredEvent;
 import com.example.hospital.model.Role;
 import com.example.hospital.model.User;
 import com.example.hospital.repository.UserRepository;
 import com.example.hospital.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +19,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     public void register(RegisterRequest request) {
 
@@ -33,7 +36,7 @@ public class UserService {
                 )
                 .build();
 
-        userRepository.save(user);
+        eventPublisher.publishEvent(new UserRegisteredEvent(userRepository.save(user)));
     }
 
 
@@ -0,0 +1,21 @@
+package com.example.hospital.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Ordered by join time; the sequence breaks ties between patients who joined in the same instant
+public record WaitlistEntry(
+        long sequence,
+        Long doctorId,
+        LocalDate date,
+        Long patientId,
+        String patientEmail,
+        Instant joinedAt
+) implements Comparable<WaitlistEntry> {
+
+    @Override
+    public int compareTo(WaitlistEntry other) {
+        int byTime = joinedAt.compareTo(other.joinedAt);
+        return byTime != 0 ? byTime : Long.compare(sequence, other.sequence);
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.WaitlistEntryResponse;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.event.SlotHoldLapsedEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.NotificationType;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Patients queue per (doctor, date); a freed slot on that day is offered to the head of the
+// queue as a slot hold and pushed to them as a notification, so nobody has to poll for openings.
+// The queues are in memory only and are lost on restart.
+@Slf4j
+@Service
+public class WaitlistService {
+
+    private final DoctorRepository doctorRepository;
+    private final UserRepository userRepository;
+    private final SlotHoldService slotHoldService;
+    private final NotificationService notificationService;
+    private final Duration offerTtl;
+    private final int maxQueueSize;
+
+    private final Map<DayKey, PriorityQueue<WaitlistEntry>> queues = new ConcurrentHashMap<>();
+    // Slots currently offered to a waiter, mapped to the hold that carries the offer
+    private final Map<SlotKey, String> offers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public WaitlistService(
+            DoctorRepository doctorRepository,
+            UserRepository userRepository,
+            SlotHoldService slotHoldService,
+            NotificationService notificationService,
+            @Value("${waitlist.offer-ttl-minutes:15}") long offerTtlMinutes,
+            @Value("${waitlist.max-size:200}") int maxQueueSize
+    ) {
+        this.doctorRepository = doctorRepository;
+        this.userRepository = userRepository;
+        this.slotHoldService = slotHoldService;
+        this.notificationService = notificationService;
+        this.offerTtl = Duration.ofMinutes(offerTtlMinutes);
+        this.maxQueueSize = maxQueueSize;
+    }
+
+    public WaitlistEntryResponse join(Long doctorId, LocalDate date, String patientEmail) {
+        User patient = userRepository.findByEmail(patientEmail)
+                .orElseThrow(() -> new RuntimeException("Patient not found"));
+
+        if (!doctorRepository.existsById(doctorId)) {
+            throw new RuntimeException("Doctor not found");
+        }
+
+        if (date.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot join the waitlist for a past date");
+        }
+
+        PriorityQueue<WaitlistEntry> queue = queues.computeIfAbsent(new DayKey(doctorId, date), key -> new PriorityQueue<>());
+        synchronized (queue) {
+            WaitlistEntry existing = find(queue, patient.getId());
+            if (existing == null) {
+                if (queue.size() >= maxQueueSize) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "The waitlist for this day is full");
+                }
+                existing = new WaitlistEntry(
+                        sequence.incrementAndGet(),
+                        doctorId,
+                        date,
+                        patient.getId(),
+                        patient.getEmail(),
+                        Instant.now()
+                );
+                queue.add(existing);
+            }
+            return toResponse(existing, position(queue, existing));
+        }
+    }
+
+    public void leave(Long doctorId, LocalDate date, String patientEmail) {
+        PriorityQueue<WaitlistEntry> queue = queues.get(new DayKey(doctorId, date));
+        boolean removed = false;
+        if (queue != null) {
+            synchronized (queue) {
+                removed = queue.removeIf(entry -> entry.patientEmail().equalsIgnoreCase(patientEmail));
+            }
+        }
+        if (!removed) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "You are not on this waitlist");
+        }
+    }
+
+    public List<WaitlistEntryResponse> entriesFor(String patientEmail) {
+        List<WaitlistEntryResponse> entries = new ArrayList<>();
+        for (PriorityQueue<WaitlistEntry> queue : queues.values()) {
+            synchronized (queue) {
+                for (WaitlistEntry entry : queue) {
+                    if (entry.patientEmail().equalsIgnoreCase(patientEmail)) {
+                        entries.add(toResponse(entry, position(queue, entry)));
+                    }
+                }
+            }
+        }
+        entries.sort(Comparator.comparing(WaitlistEntryResponse::getDate));
+        return entries;
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        Appointment appointment = event.appointment();
+        Long doctorId = appointment.getDoctor().getId();
+
+        switch (event.type()) {
+            case CANCELLED -> offerNext(doctorId, appointment.getAppointmentDate(), appointment.getAppointmentTime());
+            case RESCHEDULED -> {
+                offers.remove(new SlotKey(doctorId, appointment.getAppointmentDate(), appointment.getAppointmentTime()));
+                offerNext(doctorId, event.previousDate(), event.previousTime());
+            }
+            case BOOKED -> offers.remove(new SlotKey(doctorId, appointment.getAppointmentDate(), appointment.getAppointmentTime()));
+        }
+    }
+
+    // The waiter let the offer expire or released it: move on to the next one in line
+    @EventListener
+    public void onHoldLapsed(SlotHoldLapsedEvent event) {
+        SlotHold hold = event.hold();
+        SlotKey slot = new SlotKey(hold.doctorId(), hold.date(), hold.time());
+        if (offers.remove(slot, hold.holdId())) {
+            offerNext(hold.doctorId(), hold.date(), hold.time());
+        }
+    }
+
+    // Drop queues for days that have already passed
+    @Scheduled(cron = "0 15 0 * * *")
+    public void purgePastDays() {
+        LocalDate today = LocalDate.now();
+        queues.keySet().removeIf(key -> key.date().isBefore(today));
+        offers.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    private void offerNext(Long doctorId, LocalDate date, LocalTime time) {
+        if (LocalDateTime.of(date, time).isBefore(LocalDateTime.now())) {
+            return;
+        }
+
+        PriorityQueue<WaitlistEntry> queue = queues.get(new DayKey(doctorId, date));
+        if (queue == null) {
+            return;
+        }
+
+        // Waiters passed over because they are at their hold limit keep their place in line
+        List<WaitlistEntry> skipped = new ArrayList<>();
+        try {
+            while (true) {
+                WaitlistEntry next;
+                synchronized (queue) {
+                    next = queue.poll();
+                }
+                if (next == null) {
+                    return;
+                }
+
+                SlotHold hold;
+                try {
+                    hold = slotHoldService.hold(doctorId, date, time, next.patientEmail(), offerTtl);
+                } catch (ResponseStatusException e) {
+                    if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                        log.info("Skipping waitlisted patient {} for slot {} {} with doctor {}: hold limit reached",
+                                next.patientEmail(), date, time, doctorId);
+                        skipped.add(next);
+                        continue;
+                    }
+                    // Someone booked or held the slot first, so there is nothing left to offer
+                    skipped.add(next);
+                    return;
+                }
+
+                offers.put(new SlotKey(doctorId, date, time), hold.holdId());
+                sendOffer(next, hold);
+                return;
+            }
+        } finally {
+            if (!skipped.isEmpty()) {
+                synchronized (queue) {
+                    queue.addAll(skipped);
+                }
+            }
+        }
+    }
+
+    private void sendOffer(WaitlistEntry entry, SlotHold hold) {
+        User patient = userRepository.findById(entry.patientId()).orElse(null);
+        Doctor doctor = doctorRepository.findById(hold.doctorId()).orElse(null);
+        if (patient == null || doctor == null) {
+            return;
+        }
+
+        log.info("Offering waitlisted slot {} {} with doctor {} to {}",
+                hold.date(), hold.time(), hold.doctorId(), patient.getEmail());
+
+        notificationService.sendNotification(
+                patient,
+                NotificationType.WAITLIST_OFFER,
+                "A slot has opened up",
+                "A slot with Dr. "
+                        + doctor.getName()
+                        + " on "
+                        + hold.date()
+                        + " at "
+                        + hold.time()
+                        + " is reserved for you until "
+                        + hold.expiresAt()
+                        + ". Book it before then to confirm.",
+                null
+        );
+    }
+
+    private WaitlistEntry find(PriorityQueue<WaitlistEntry> queue, Long patientId) {
+        for (WaitlistEntry entry : queue) {
+            if (entry.patientId().equals(patientId)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private int position(PriorityQueue<WaitlistEntry> queue, WaitlistEntry entry) {
+        int ahead = 0;
+        for (WaitlistEntry other : queue) {
+            if (other.compareTo(entry) < 0) {
+                ahead++;
+            }
+        }
+        return ahead + 1;
+    }
+
+    private WaitlistEntryResponse toResponse(WaitlistEntry entry, int position) {
+        return WaitlistEntryResponse.builder()
+                .doctorId(entry.doctorId())
+                .date(entry.date())
+                .position(position)
+                .joinedAt(entry.joinedAt())
+                .build();
+    }
+
+    private record DayKey(Long doctorId, LocalDate date) {
+    }
+
+    private record SlotKey(Long doctorId, LocalDate date, LocalTime time) {
+    }
+}
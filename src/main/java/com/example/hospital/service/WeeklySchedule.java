@@ -0,0 +1,122 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.DayOfWeek;
+import com.example.hospital.model.DoctorAvailability;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// A doctor's availability templates compiled once into per-day slot tables.
+// Windows on the same day are merged into non-overlapping intervals, so split
+// shifts (e.g. morning + evening) contribute all of their slots.
+public final class WeeklySchedule {
+
+    private static final DaySchedule CLOSED = new DaySchedule(new int[0]);
+
+    private final Map<DayOfWeek, DaySchedule> days;
+
+    private WeeklySchedule(Map<DayOfWeek, DaySchedule> days) {
+        this.days = days;
+    }
+
+    public static WeeklySchedule compile(List<DoctorAvailability> availabilities) {
+        Map<DayOfWeek, List<Window>> windowsByDay = new EnumMap<>(DayOfWeek.class);
+        for (DoctorAvailability availability : availabilities) {
+            Window window = new Window(
+                    minuteOfDay(availability.getStartTime()),
+                    minuteOfDay(availability.getEndTime()),
+                    availability.getSlotDuration()
+            );
+            if (window.start < window.end && window.duration > 0) {
+                windowsByDay.computeIfAbsent(availability.getDayOfWeek(), day -> new ArrayList<>()).add(window);
+            }
+        }
+
+        Map<DayOfWeek, DaySchedule> days = new EnumMap<>(DayOfWeek.class);
+        windowsByDay.forEach((day, windows) -> days.put(day, new DaySchedule(slotMinutes(merge(windows)))));
+        return new WeeklySchedule(days);
+    }
+
+    public DaySchedule day(DayOfWeek dayOfWeek) {
+        return days.getOrDefault(dayOfWeek, CLOSED);
+    }
+
+    public DaySchedule day(java.time.DayOfWeek dayOfWeek) {
+        return day(DayOfWeek.valueOf(dayOfWeek.name()));
+    }
+
+    // Overlapping windows with the same slot length are unioned; otherwise the
+    // later window is clipped to start where the earlier one ends
+    private static List<Window> merge(List<Window> windows) {
+        windows.sort(Comparator.comparingInt((Window window) -> window.start).thenComparingInt(window -> window.end));
+
+        List<Window> merged = new ArrayList<>();
+        for (Window window : windows) {
+            Window last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last == null || window.start >= last.end) {
+                merged.add(window);
+            } else if (window.duration == last.duration) {
+                merged.set(merged.size() - 1, new Window(last.start, Math.max(last.end, window.end), last.duration));
+            } else if (window.end > last.end) {
+                merged.add(new Window(last.end, window.end, window.duration));
+            }
+        }
+        return merged;
+    }
+
+    private static int[] slotMinutes(List<Window> intervals) {
+        List<Integer> slots = new ArrayList<>();
+        int previousSlotEnd = 0;
+
+        for (Window interval : intervals) {
+            for (int slot = Math.max(interval.start, previousSlotEnd); slot < interval.end; slot += interval.duration) {
+                slots.add(slot);
+                previousSlotEnd = slot + interval.duration;
+            }
+        }
+
+        return slots.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record Window(int start, int end, int duration) {
+    }
+
+    // Precomputed slot start times for one weekday, in ascending order
+    public static final class DaySchedule {
+
+        private final int[] minutes;
+        private final LocalTime[] times;
+
+        private DaySchedule(int[] minutes) {
+            this.minutes = minutes;
+            this.times = new LocalTime[minutes.length];
+            for (int i = 0; i < minutes.length; i++) {
+                times[i] = LocalTime.of(minutes[i] / 60, minutes[i] % 60);
+            }
+        }
+
+        public int size() {
+            return minutes.length;
+        }
+
+        public boolean isEmpty() {
+            return minutes.length == 0;
+        }
+
+        public int minuteAt(int index) {
+            return minutes[index];
+        }
+
+        public LocalTime timeAt(int index) {
+            return times[index];
+        }
+    }
+}
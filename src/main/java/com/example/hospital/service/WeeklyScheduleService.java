@@ -0,0 +1,74 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.DoctorAvailability;
+import com.example.hospital.repository.DoctorAvailabilityRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class WeeklyScheduleService {
+
+    public static final String CACHE_NAME = "weeklySchedules";
+
+    private final DoctorAvailabilityRepository availabilityRepository;
+    private final CacheManager cacheManager;
+
+    public WeeklySchedule getSchedule(Doctor doctor) {
+        return cache().get(doctor.getId(), () ->
+                WeeklySchedule.compile(availabilityRepository.findByDoctorAndIsActiveTrue(doctor)));
+    }
+
+    // Compiles every uncached schedule from a single availability query
+    public Map<Long, WeeklySchedule> getSchedules(List<Doctor> doctors) {
+        Cache cache = cache();
+        Map<Long, WeeklySchedule> schedules = new HashMap<>();
+        List<Doctor> missing = new ArrayList<>();
+
+        for (Doctor doctor : doctors) {
+            WeeklySchedule cached = cache.get(doctor.getId(), WeeklySchedule.class);
+            if (cached != null) {
+                schedules.put(doctor.getId(), cached);
+            } else {
+                missing.add(doctor);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, List<DoctorAvailability>> availabilityByDoctor = availabilityRepository
+                    .findByDoctorInAndIsActiveTrue(missing)
+                    .stream()
+                    .collect(Collectors.groupingBy(availability -> availability.getDoctor().getId()));
+
+            for (Doctor doctor : missing) {
+                WeeklySchedule schedule = WeeklySchedule.compile(
+                        availabilityByDoctor.getOrDefault(doctor.getId(), List.of()));
+                cache.put(doctor.getId(), schedule);
+                schedules.put(doctor.getId(), schedule);
+            }
+        }
+
+        return schedules;
+    }
+
+    public void evict(Long doctorId) {
+        cache().evict(doctorId);
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        return cache;
+    }
+}
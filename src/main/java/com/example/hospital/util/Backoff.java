@@ -0,0 +1,20 @@
+package com.example.hospital.util;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Retry delays shared by the email outbox and the notification retry worker
+public final class Backoff {
+
+    private Backoff() {
+    }
+
+    // Exponential delay with "equal jitter": half fixed, half random, so work that failed
+    // together does not retry together. attempts is the number of failures so far (1 or more).
+    public static Duration equalJitter(Duration baseDelay, Duration maxDelay, int attempts) {
+        long base = baseDelay.toMillis() << Math.min(Math.max(attempts, 1) - 1, 20);
+        long delay = Math.min(base, maxDelay.toMillis());
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(half + 1));
+    }
+}
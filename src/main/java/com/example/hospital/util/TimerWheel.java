@@ -0,0 +1,75 @@
+package com.example.hospital.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+// Hashed timing wheel: O(1) schedule, and each advance only visits the buckets for the
+// ticks that elapsed. Items whose deadline is more than one rotation away simply stay
+// in their bucket until a later pass finds them due.
+public class TimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Timeout<T>>[] buckets;
+    private long processedTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayDeque[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.processedTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // Round up so the bucket is only visited once the deadline has passed; rounding down
+        // would find a mid-tick deadline not yet due and leave it for a full rotation.
+        // Overdue items land in the next bucket to be processed
+        long tick = Math.max((deadlineMillis + tickMillis - 1) / tickMillis, processedTick + 1);
+        buckets[(int) (tick & mask)].add(new Timeout<>(item, deadlineMillis));
+        size++;
+    }
+
+    // Returns every item whose deadline is at or before nowMillis
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> due = new ArrayList<>();
+        if (nowTick <= processedTick) {
+            return due;
+        }
+
+        // After a full rotation every bucket has been visited once
+        long firstTick = Math.max(processedTick + 1, nowTick - mask);
+        for (long tick = firstTick; tick <= nowTick; tick++) {
+            ArrayDeque<Timeout<T>> bucket = buckets[(int) (tick & mask)];
+            int pending = bucket.size();
+            for (int i = 0; i < pending; i++) {
+                Timeout<T> timeout = bucket.poll();
+                if (timeout.deadlineMillis() <= nowMillis) {
+                    due.add(timeout.item());
+                    size--;
+                } else {
+                    bucket.add(timeout);
+                }
+            }
+        }
+
+        processedTick = nowTick;
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Timeout<T>(T item, long deadlineMillis) {
+    }
+}
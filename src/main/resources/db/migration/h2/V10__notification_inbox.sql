@@ -0,0 +1,22 @@
+-- Real read/unread state for the notification inbox.
+alter table notification add column if not exists is_read boolean not null default false;
+alter table notification add column if not exists read_at timestamp(6);
+
+-- There was no read state before this migration, so existing history counts as already read;
+-- otherwise every long-time user's badge would show their whole history as unread.
+update notification set is_read = true, read_at = sent_at;
+
+-- Inbox pages are read newest first by (sent_at, id) per user.
+drop index if exists idx_notification_user_sent_at;
+create index if not exists idx_notification_user_sent_at_id on notification (user_id, sent_at, id);
+
+-- Unread count per user, kept up to date on insert and mark-read so the badge is a key lookup.
+create table if not exists notification_unread_counter (
+    user_id bigint not null,
+    unread_count bigint not null,
+    primary key (user_id)
+);
+
+-- Only rows still unread are counted
+insert into notification_unread_counter (user_id, unread_count)
+select user_id, count(*) from notification where is_read = false group by user_id;
@@ -0,0 +1,42 @@
+-- Old notifications and finished appointments are moved here by the archival job so the live
+-- tables only hold recent history. Rows keep their original ids; there are no foreign keys,
+-- so archived rows never hold up changes to the live tables.
+create table if not exists notification_archive (
+    id bigint not null,
+    user_id bigint not null,
+    type varchar(255),
+    subject varchar(255),
+    message varchar(1000),
+    sent_at timestamp(6),
+    status varchar(255),
+    related_appointment_id bigint,
+    is_read boolean not null,
+    read_at timestamp(6),
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_notification_archive_user_sent_at_id
+    on notification_archive (user_id, sent_at, id);
+
+create table if not exists appointment_archive (
+    id bigint not null,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    appointment_date date,
+    appointment_time time(6),
+    status varchar(255),
+    reschedule_count integer not null,
+    archived_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index if not exists idx_appointment_archive_patient_date
+    on appointment_archive (patient_id, appointment_date);
+
+create index if not exists idx_appointment_archive_doctor_date
+    on appointment_archive (doctor_id, appointment_date);
+
+-- The archival job looks for notifications by age
+create index if not exists idx_notification_sent_at
+    on notification (sent_at);
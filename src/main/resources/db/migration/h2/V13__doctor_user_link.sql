@@ -0,0 +1,18 @@
+-- Links a doctor profile to the user account that logs in as that doctor.
+alter table doctor add column if not exists user_id bigint;
+alter table doctor add constraint fk_doctor_user foreign key (user_id) references users (id);
+
+-- One profile per account; also the index behind the dashboard's lookup by account
+create unique index if not exists ux_doctor_user on doctor (user_id);
+
+-- Backfill the links the dashboard used to guess by name, where the guess is unambiguous:
+-- exactly one DOCTOR account and exactly one doctor profile with that name.
+-- Anything else is left for an admin to link through PUT /api/doctors/{id}/account.
+update doctor d
+set user_id = (
+    select u.id from users u
+    where u.role = 'DOCTOR' and lower(u.name) = lower(d.name)
+)
+where d.user_id is null
+  and (select count(*) from users u where u.role = 'DOCTOR' and lower(u.name) = lower(d.name)) = 1
+  and (select count(*) from doctor other where lower(other.name) = lower(d.name)) = 1;
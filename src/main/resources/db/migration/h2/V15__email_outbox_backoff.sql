@@ -0,0 +1,8 @@
+-- Failed outbox sends wait out an exponential backoff before the dispatcher claims them again.
+alter table email_outbox add column if not exists next_attempt_at timestamp(6);
+
+update email_outbox set next_attempt_at = created_at where status = 'PENDING';
+
+-- The dispatcher looks for due PENDING rows by next attempt time
+drop index if exists idx_email_outbox_status;
+create index if not exists idx_email_outbox_status_next_attempt on email_outbox (status, next_attempt_at);
@@ -0,0 +1,4 @@
+-- Reminder queries scan BOOKED appointments by date/time window and page by id.
+-- H2 has no partial indexes, so the index covers every status.
+create index if not exists idx_appointment_booked_window
+    on appointment (appointment_date, appointment_time, id);
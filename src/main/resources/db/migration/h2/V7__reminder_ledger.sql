@@ -0,0 +1,10 @@
+-- Reminders that have been sent, keyed by (appointment, reminder type) so each goes out once
+-- even when several schedulers see the same appointment.
+create table if not exists reminder_ledger (
+    id bigint generated by default as identity,
+    appointment_id bigint not null,
+    type varchar(255) not null,
+    sent_at timestamp(6) not null,
+    primary key (id),
+    constraint uk_reminder_ledger_appointment_type unique (appointment_id, type)
+);
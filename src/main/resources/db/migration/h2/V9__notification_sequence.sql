@@ -0,0 +1,5 @@
+-- Sequence-backed ids for Notification so buffered notifications are inserted in JDBC batches
+-- (pooled optimizer, allocation 50). The first value handed out is max(id) + 50.
+create sequence if not exists notification_seq start with 1 increment by 50;
+
+alter sequence notification_seq restart with (select coalesce(max(id), 0) + 50 from notification);
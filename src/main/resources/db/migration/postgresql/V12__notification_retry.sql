@@ -0,0 +1,17 @@
+-- Retry bookkeeping for notifications whose email could not be delivered.
+alter table notification add column if not exists attempts integer not null default 0;
+alter table notification add column if not exists next_attempt_at timestamp(6);
+alter table notification add column if not exists last_error varchar(1000);
+
+-- Status gains DEAD_LETTER; drop the enum check Hibernate's schema update may have created
+alter table notification drop constraint if exists notification_status_check;
+
+-- Recent failures get retried; older ones are past the point where the message is useful
+update notification set attempts = 1, next_attempt_at = current_timestamp
+where status = 'FAILED' and sent_at > current_timestamp - interval '1' day;
+update notification set status = 'DEAD_LETTER'
+where status = 'FAILED' and next_attempt_at is null;
+
+-- The retry worker looks for due FAILED rows by next attempt time
+create index if not exists idx_notification_status_next_attempt
+    on notification (status, next_attempt_at);
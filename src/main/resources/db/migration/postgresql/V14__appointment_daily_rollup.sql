@@ -0,0 +1,22 @@
+-- Appointments per (day, doctor, status), kept up to date as appointments change so analytics
+-- over long ranges read this table instead of the appointment rows.
+create table if not exists appointment_daily_rollup (
+    id bigint generated by default as identity,
+    appointment_date date not null,
+    doctor_id bigint not null,
+    status varchar(255) not null,
+    appointment_count bigint not null,
+    primary key (id),
+    constraint uk_appointment_daily_rollup_date_doctor_status unique (appointment_date, doctor_id, status)
+);
+
+-- Existing history, including appointments that were already archived
+insert into appointment_daily_rollup (appointment_date, doctor_id, status, appointment_count)
+select appointment_date, doctor_id, status, count(*)
+from (
+    select appointment_date, doctor_id, status from appointment
+    union all
+    select appointment_date, doctor_id, status from appointment_archive
+) history
+where appointment_date is not null and status is not null
+group by appointment_date, doctor_id, status;
@@ -0,0 +1,70 @@
+-- Schema as previously generated by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at version 1 and skip this script.
+
+create table users (
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    password varchar(255) not null,
+    role varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table doctor (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    specialization varchar(255) not null,
+    experience integer not null check (experience >= 0),
+    available boolean not null,
+    primary key (id),
+    constraint uk_doctor_name_specialization unique (name, specialization)
+);
+
+create table appointment (
+    id bigint generated by default as identity,
+    patient_id bigint not null,
+    doctor_id bigint not null,
+    appointment_date date,
+    appointment_time time(6),
+    status varchar(255),
+    reschedule_count integer not null,
+    primary key (id),
+    constraint fk_appointment_patient foreign key (patient_id) references users (id),
+    constraint fk_appointment_doctor foreign key (doctor_id) references doctor (id)
+);
+
+create table doctor_availability (
+    id bigint generated by default as identity,
+    doctor_id bigint not null,
+    day_of_week varchar(255) not null,
+    start_time time(6) not null,
+    end_time time(6) not null,
+    slot_duration integer not null check (slot_duration >= 15),
+    is_active boolean not null,
+    primary key (id),
+    constraint fk_doctor_availability_doctor foreign key (doctor_id) references doctor (id)
+);
+
+create table doctor_leave (
+    id bigint generated by default as identity,
+    doctor_id bigint not null,
+    leave_date date not null,
+    reason varchar(255) not null,
+    leave_type varchar(255) not null,
+    primary key (id),
+    constraint fk_doctor_leave_doctor foreign key (doctor_id) references doctor (id)
+);
+
+create table notification (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    type varchar(255),
+    subject varchar(255),
+    message varchar(1000),
+    sent_at timestamp(6),
+    status varchar(255),
+    related_appointment_id bigint,
+    primary key (id),
+    constraint fk_notification_user foreign key (user_id) references users (id)
+);
@@ -0,0 +1,41 @@
+-- Optimistic locking column for Appointment (@Version)
+alter table appointment add column if not exists version bigint default 0 not null;
+
+-- Composite indexes for the hot AppointmentRepository lookups
+
+-- existsByDoctorAndAppointmentDateAndAppointmentTimeAndStatus, findByDoctorAndAppointmentDate*
+create index if not exists idx_appointment_doctor_slot
+    on appointment (doctor_id, appointment_date, appointment_time, status);
+
+-- existsByPatientAndDoctorAndAppointmentDateAndStatus, findByPatientAndAppointmentDateAfter*
+create index if not exists idx_appointment_patient_date
+    on appointment (patient_id, appointment_date);
+
+-- countByStatus
+create index if not exists idx_appointment_status
+    on appointment (status);
+
+-- Databases created before this migration could already hold double bookings.
+-- Keep the earliest booking of each slot and cancel the rest so the unique index can be built.
+update appointment a
+set status = 'CANCELLED'
+where a.status = 'BOOKED'
+  and exists (
+      select 1 from appointment earlier
+      where earlier.doctor_id = a.doctor_id
+        and earlier.appointment_date = a.appointment_date
+        and earlier.appointment_time = a.appointment_time
+        and earlier.status = 'BOOKED'
+        and earlier.id < a.id
+  );
+
+-- The database itself rejects a second BOOKED row for the same doctor slot
+create unique index if not exists ux_appointment_booked_slot
+    on appointment (doctor_id, appointment_date, appointment_time)
+    where status = 'BOOKED';
+
+create index if not exists idx_notification_user_sent_at
+    on notification (user_id, sent_at);
+
+create index if not exists idx_doctor_leave_doctor_date
+    on doctor_leave (doctor_id, leave_date);
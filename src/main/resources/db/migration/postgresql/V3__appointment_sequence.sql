@@ -0,0 +1,5 @@
+-- Sequence-backed ids for Appointment so Hibernate can batch inserts (pooled optimizer, allocation 50).
+-- The first value handed out is max(id) + 50; the pooled optimizer then starts at max(id) + 1.
+create sequence if not exists appointment_seq start with 1 increment by 50;
+
+select setval('appointment_seq', (select coalesce(max(id), 0) + 50 from appointment), false);
@@ -0,0 +1,3 @@
+-- Databases created by Hibernate's schema update carry a check constraint listing the enum values
+-- known at the time; drop it so new notification types such as WAITLIST_OFFER can be stored.
+alter table notification drop constraint if exists notification_type_check;
@@ -0,0 +1,17 @@
+-- Appointment emails are queued here in the booking transaction and sent by EmailOutboxService.
+create sequence if not exists email_outbox_seq start with 1 increment by 50;
+
+create table if not exists email_outbox (
+    id bigint not null,
+    recipient varchar(255) not null,
+    subject varchar(255),
+    body varchar(4000),
+    status varchar(255) not null,
+    attempts integer not null default 0,
+    last_error varchar(1000),
+    created_at timestamp(6) not null,
+    sent_at timestamp(6),
+    primary key (id)
+);
+
+create index if not exists idx_email_outbox_status on email_outbox (status, id);
@@ -0,0 +1,4 @@
+-- Reminder queries scan BOOKED appointments by date/time window and page by id.
+create index if not exists idx_appointment_booked_window
+    on appointment (appointment_date, appointment_time, id)
+    where status = 'BOOKED';
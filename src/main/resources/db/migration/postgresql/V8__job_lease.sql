@@ -0,0 +1,18 @@
+-- Leases on partitions of scheduled jobs, so nodes in a cluster split the work instead of
+-- each running all of it. Rows are created on first use by JobLeaseService.
+create table if not exists job_lease (
+    id bigint generated by default as identity,
+    job_name varchar(255) not null,
+    partition_no integer not null,
+    owner varchar(255),
+    lease_until timestamp(6) not null,
+    primary key (id),
+    constraint uk_job_lease_job_partition unique (job_name, partition_no)
+);
+
+-- Node heartbeats; the number of live nodes decides how many partitions each one takes.
+create table if not exists cluster_node (
+    node_id varchar(255) not null,
+    last_seen timestamp(6) not null,
+    primary key (node_id)
+);
@@ -0,0 +1,185 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.TimeseriesGranularity;
+import com.example.hospital.dto.TimeseriesPoint;
+import com.example.hospital.dto.TimeseriesResponse;
+import com.example.hospital.event.AppointmentEvent;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.repository.AppointmentArchiveRepository;
+import com.example.hospital.repository.AppointmentDailyRollupRepository;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.RollupRowView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AppointmentRollupServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 4, 30);
+
+    private AppointmentDailyRollupRepository rollupRepository;
+    private AppointmentRepository appointmentRepository;
+    private TransactionTemplate transactionTemplate;
+    private AppointmentRollupService service;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(AppointmentDailyRollupRepository.class);
+        appointmentRepository = mock(AppointmentRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        service = new AppointmentRollupService(
+                rollupRepository,
+                appointmentRepository,
+                mock(AppointmentArchiveRepository.class),
+                mock(JobLeaseService.class),
+                transactionTemplate,
+                35,
+                90
+        );
+    }
+
+    @Test
+    void eventsOnlyMarkDaysAndEachDayIsRecountedOnce() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        LocalDate monday = LocalDate.of(2026, 3, 2);
+        LocalDate tuesday = LocalDate.of(2026, 3, 3);
+
+        // A bulk booking of three slots on one day, and a reschedule from Monday to Tuesday
+        for (int hour = 9; hour < 12; hour++) {
+            service.onAppointmentEvent(AppointmentEvent.booked(appointment(7L, monday, hour)));
+        }
+        service.onAppointmentEvent(AppointmentEvent.rescheduled(appointment(7L, tuesday, 9), monday, LocalTime.of(10, 0)));
+        verifyNoInteractions(transactionTemplate);
+
+        service.recountPending();
+
+        verify(appointmentRepository, times(1)).countForDoctorDayGroupedByStatus(monday, 7L);
+        verify(appointmentRepository, times(1)).countForDoctorDayGroupedByStatus(tuesday, 7L);
+        verify(transactionTemplate, times(2)).execute(any());
+
+        service.recountPending();
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void periodStartIsTheFirstDayOfTheBucket() {
+        // 2026-03-11 is a Wednesday
+        LocalDate date = LocalDate.of(2026, 3, 11);
+
+        assertThat(AppointmentRollupService.periodStart(date, TimeseriesGranularity.DAY)).isEqualTo(date);
+        assertThat(AppointmentRollupService.periodStart(date, TimeseriesGranularity.WEEK)).isEqualTo(LocalDate.of(2026, 3, 9));
+        assertThat(AppointmentRollupService.periodStart(date, TimeseriesGranularity.MONTH)).isEqualTo(LocalDate.of(2026, 3, 1));
+    }
+
+    @Test
+    void weeksStartOnMonday() {
+        LocalDate monday = LocalDate.of(2026, 3, 9);
+        LocalDate sunday = LocalDate.of(2026, 3, 15);
+
+        assertThat(AppointmentRollupService.periodStart(monday, TimeseriesGranularity.WEEK)).isEqualTo(monday);
+        assertThat(AppointmentRollupService.periodStart(sunday, TimeseriesGranularity.WEEK)).isEqualTo(monday);
+    }
+
+    @Test
+    void weekThatSpansTwoMonthsIsOneBucket() {
+        // 2026-03-30 is a Monday; the week runs into April
+        when(rollupRepository.sumByDateSpecializationAndStatus(FROM, TO)).thenReturn(List.of(
+                row("2026-03-30", "Cardiology", AppointmentStatus.BOOKED, 2),
+                row("2026-04-02", "Cardiology", AppointmentStatus.BOOKED, 3)
+        ));
+
+        assertThat(service.getTimeseries(FROM, TO, TimeseriesGranularity.WEEK).getPoints())
+                .containsExactly(point("2026-03-30", "Cardiology", AppointmentStatus.BOOKED, 5));
+        assertThat(service.getTimeseries(FROM, TO, TimeseriesGranularity.MONTH).getPoints())
+                .containsExactly(
+                        point("2026-03-01", "Cardiology", AppointmentStatus.BOOKED, 2),
+                        point("2026-04-01", "Cardiology", AppointmentStatus.BOOKED, 3)
+                );
+    }
+
+    @Test
+    void pointsAreKeptApartBySpecializationAndStatusAndZerosDropped() {
+        when(rollupRepository.sumByDateSpecializationAndStatus(FROM, TO)).thenReturn(List.of(
+                row("2026-03-02", "Cardiology", AppointmentStatus.BOOKED, 4),
+                row("2026-03-02", "Cardiology", AppointmentStatus.CANCELLED, 1),
+                row("2026-03-02", "Neurology", AppointmentStatus.BOOKED, 0),
+                row("2026-03-03", "Neurology", AppointmentStatus.BOOKED, 2),
+                row("2026-03-04", "Cardiology", AppointmentStatus.BOOKED, 1)
+        ));
+
+        TimeseriesResponse response = service.getTimeseries(FROM, TO, TimeseriesGranularity.WEEK);
+
+        assertThat(response.getPoints()).containsExactly(
+                point("2026-03-02", "Cardiology", AppointmentStatus.BOOKED, 5),
+                point("2026-03-02", "Cardiology", AppointmentStatus.CANCELLED, 1),
+                point("2026-03-02", "Neurology", AppointmentStatus.BOOKED, 2)
+        );
+    }
+
+    @Test
+    void rejectsInvertedRange() {
+        assertThatThrownBy(() -> service.getTimeseries(TO, FROM, TimeseriesGranularity.DAY))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+
+    private static Appointment appointment(Long doctorId, LocalDate date, int hour) {
+        return Appointment.builder()
+                .doctor(Doctor.builder().id(doctorId).build())
+                .appointmentDate(date)
+                .appointmentTime(LocalTime.of(hour, 0))
+                .status(AppointmentStatus.BOOKED)
+                .build();
+    }
+
+    private static RollupRowView row(String date, String specialization, AppointmentStatus status, long count) {
+        return new RollupRowView() {
+            @Override
+            public LocalDate getAppointmentDate() {
+                return LocalDate.parse(date);
+            }
+
+            @Override
+            public String getSpecialization() {
+                return specialization;
+            }
+
+            @Override
+            public AppointmentStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    private static TimeseriesPoint point(String periodStart, String specialization, AppointmentStatus status, long count) {
+        return TimeseriesPoint.builder()
+                .periodStart(LocalDate.parse(periodStart))
+                .specialization(specialization)
+                .status(status)
+                .count(count)
+                .build();
+    }
+}
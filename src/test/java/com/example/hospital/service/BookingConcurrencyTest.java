@@ -0,0 +1,182 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.AppointmentRequest;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.Role;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest
+class BookingConcurrencyTest {
+
+    private static final int PATIENTS = 64;
+    private static final int DOCTORS = 8;
+    private static final int SLOTS_PER_DOCTOR = 16;
+    private static final int ATTEMPTS = 640;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    private final List<User> patients = new ArrayList<>();
+    private final List<Doctor> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        appointmentRepository.deleteAll();
+        doctorRepository.deleteAll();
+        userRepository.deleteAll();
+        patients.clear();
+        doctors.clear();
+
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(userRepository.save(User.builder()
+                    .name("Patient " + i)
+                    .email("patient" + i + "@test.com")
+                    .password("unused")
+                    .role(Role.PATIENT)
+                    .build()));
+        }
+        for (int i = 0; i < DOCTORS; i++) {
+            doctors.add(doctorRepository.save(Doctor.builder()
+                    .name("Doctor " + i)
+                    .specialization("Cardiology")
+                    .experience(10)
+                    .available(true)
+                    .build()));
+        }
+    }
+
+    @Test
+    void sameSlotIsBookedExactlyOnce() throws InterruptedException {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Doctor doctor = doctors.get(0);
+        AtomicInteger successes = new AtomicInteger();
+
+        runConcurrently(PATIENTS, PATIENTS, attempt -> {
+            appointmentService.bookAppointment(
+                    request(doctor, date, LocalTime.of(9, 0)),
+                    patients.get(attempt).getEmail()
+            );
+            successes.incrementAndGet();
+        });
+
+        assertThat(successes.get()).isEqualTo(1);
+        assertThat(appointmentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void noDoubleBookingsUnderContention() throws InterruptedException {
+        int[] threadCounts = {1, 8, 64};
+
+        for (int run = 0; run < threadCounts.length; run++) {
+            int threads = threadCounts[run];
+            LocalDate date = LocalDate.now().plusDays(run + 1L);
+            AtomicInteger successes = new AtomicInteger();
+
+            // Every slot is requested by five different attempts, so most attempts conflict
+            long elapsedNanos = runConcurrently(threads, ATTEMPTS, attempt -> {
+                Doctor doctor = doctors.get(attempt % DOCTORS);
+                LocalTime time = LocalTime.of(9, 0).plusMinutes(15L * ((attempt / DOCTORS) % SLOTS_PER_DOCTOR));
+                appointmentService.bookAppointment(
+                        request(doctor, date, time),
+                        patients.get(attempt % PATIENTS).getEmail()
+                );
+                successes.incrementAndGet();
+            });
+
+            Map<String, Long> bookingsPerSlot = appointmentRepository.findAll().stream()
+                    .filter(appointment -> appointment.getAppointmentDate().equals(date))
+                    .filter(appointment -> appointment.getStatus() == AppointmentStatus.BOOKED)
+                    .collect(Collectors.groupingBy(
+                            appointment -> appointment.getDoctor().getId() + "@" + appointment.getAppointmentTime(),
+                            Collectors.counting()
+                    ));
+
+            log.info("Booking stress: {} threads, {} attempts, {} booked, {} attempts/s",
+                    threads, ATTEMPTS, successes.get(), Math.round(ATTEMPTS / (elapsedNanos / 1_000_000_000.0)));
+
+            assertThat(bookingsPerSlot.values()).allMatch(count -> count == 1);
+            assertThat(bookingsPerSlot.values().stream().mapToLong(Long::longValue).sum())
+                    .isEqualTo(successes.get());
+        }
+    }
+
+    private long runConcurrently(int threads, int attempts, Attempt attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(attempts);
+
+        for (int i = 0; i < attempts; i++) {
+            int attemptNumber = i;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    attempt.run(attemptNumber);
+                } catch (RuntimeException expectedConflict) {
+                    // Slot or patient conflicts are the expected outcome for most attempts
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        assertThat(done.await(2, TimeUnit.MINUTES)).isTrue();
+        long elapsed = System.nanoTime() - startedAt;
+        executor.shutdown();
+        return elapsed;
+    }
+
+    private AppointmentRequest request(Doctor doctor, LocalDate date, LocalTime time) {
+        AppointmentRequest request = new AppointmentRequest();
+        request.setDoctorId(doctor.getId());
+        request.setAppointmentDate(date);
+        request.setAppointmentTime(time);
+        return request;
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        void run(int attempt);
+    }
+}
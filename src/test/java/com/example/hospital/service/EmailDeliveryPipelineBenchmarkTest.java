@@ -0,0 +1,180 @@
+package com.example.hospital.service;
+
+import com.example.hospital.dto.EmailPipelineStatsResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j
+class EmailDeliveryPipelineBenchmarkTest {
+
+    private static final int MESSAGES = 400;
+
+    private SmtpStandIn smtp;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // 5 ms per new session stands in for the TCP/TLS handshake of a real server
+        smtp = new SmtpStandIn(5);
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        mailSender.getJavaMailProperties().put("mail.smtp.from", "noreply@hospital.test");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void batchedPipelineReusesConnections() throws InterruptedException {
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo("patient" + i + "@hospital.test");
+            message.setSubject("Reminder");
+            message.setText("Message " + i);
+            mailSender.send(message);
+        }
+        long perMessageNanos = System.nanoTime() - start;
+        int perMessageConnections = smtp.connections.getAndSet(0);
+        assertThat(smtp.messages.getAndSet(0)).isEqualTo(MESSAGES);
+
+        EmailDeliveryPipeline pipeline = new EmailDeliveryPipeline(mailSender, 1000, 2, 50, 2000);
+        pipeline.start();
+
+        start = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < MESSAGES; i++) {
+            results.add(pipeline.submit("patient" + i + "@hospital.test", "Reminder", "Message " + i));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+        long pipelineNanos = System.nanoTime() - start;
+        pipeline.stop();
+
+        EmailPipelineStatsResponse stats = pipeline.stats();
+        log.info("per-message send: {} msgs, {} connections, {} msgs/s",
+                MESSAGES, perMessageConnections, Math.round(MESSAGES / (perMessageNanos / 1e9)));
+        log.info("pipeline: {} msgs, {} connections, {} batches, {} msgs/s, avg send {} ms",
+                MESSAGES, smtp.connections.get(), stats.getBatches(), Math.round(MESSAGES / (pipelineNanos / 1e9)),
+                String.format("%.1f", stats.getAverageSendMillis()));
+
+        assertThat(smtp.messages.get()).isEqualTo(MESSAGES);
+        assertThat(stats.getSent()).isEqualTo(MESSAGES);
+        assertThat(stats.getFailed()).isZero();
+        assertThat(perMessageConnections).isEqualTo(MESSAGES);
+        assertThat(smtp.connections.get()).isLessThan(MESSAGES / 5);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() {
+        // No workers, so nothing drains the queue
+        EmailDeliveryPipeline pipeline = new EmailDeliveryPipeline(mailSender, 2, 0, 50, 10);
+        pipeline.start();
+
+        pipeline.submit("a@hospital.test", "s", "b");
+        pipeline.submit("b@hospital.test", "s", "b");
+        CompletableFuture<Void> overflow = pipeline.submit("c@hospital.test", "s", "b");
+
+        assertThatThrownBy(overflow::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(pipeline.stats().getRejected()).isEqualTo(1);
+        assertThat(pipeline.stats().getQueueDepth()).isEqualTo(2);
+    }
+
+    // Just enough SMTP for JavaMail: accepts everything and counts sessions and messages
+    private static class SmtpStandIn {
+
+        private final ServerSocket server;
+        private final ExecutorService sessions = Executors.newCachedThreadPool();
+        private final long sessionDelayMillis;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger messages = new AtomicInteger();
+
+        SmtpStandIn(long sessionDelayMillis) throws IOException {
+            this.sessionDelayMillis = sessionDelayMillis;
+            this.server = new ServerSocket(0);
+            sessions.submit(this::acceptLoop);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        void close() throws IOException {
+            server.close();
+            sessions.shutdownNow();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    connections.incrementAndGet();
+                    sessions.submit(() -> session(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void session(Socket socket) {
+            try (socket) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                OutputStream out = socket.getOutputStream();
+
+                Thread.sleep(sessionDelayMillis);
+                reply(out, "220 localhost ESMTP");
+
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                    switch (command) {
+                        case "DATA" -> {
+                            reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                            while ((line = in.readLine()) != null && !line.equals(".")) {
+                                // message body is discarded
+                            }
+                            messages.incrementAndGet();
+                            reply(out, "250 OK");
+                        }
+                        case "QUIT" -> {
+                            reply(out, "221 Bye");
+                            return;
+                        }
+                        default -> reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                // connection closed
+            }
+        }
+
+        private void reply(OutputStream out, String line) throws IOException {
+            out.write((line + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.hospital.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTest {
+
+    private static final String SCOPE = "book:patient@test.com";
+
+    @Test
+    void repeatedKeyReturnsStoredResultWithoutRunningAgain() {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = store.execute(SCOPE, "key-1", "payload", () -> "result-" + runs.incrementAndGet());
+        String second = store.execute(SCOPE, "key-1", "payload", () -> "result-" + runs.incrementAndGet());
+
+        assertThat(first).isEqualTo("result-1");
+        assertThat(second).isEqualTo("result-1");
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void sameKeyWithDifferentPayloadIsRejected() {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+        store.execute(SCOPE, "key-1", "payload", () -> "result");
+
+        assertThatThrownBy(() -> store.execute(SCOPE, "key-1", "other payload", () -> "result"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e ->
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+    }
+
+    @Test
+    void keysAreScopedPerCaller() {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute(SCOPE, "key-1", "payload", runs::incrementAndGet);
+        store.execute("book:other@test.com", "key-1", "payload", runs::incrementAndGet);
+
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void failureIsNotRemembered() {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+
+        assertThatThrownBy(() -> store.execute(SCOPE, "key-1", "payload", () -> {
+            throw new IllegalStateException("slot taken");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.size()).isZero();
+        assertThat(store.execute(SCOPE, "key-1", "payload", () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void expiredEntriesAreEvicted() {
+        // A zero TTL expires every entry by the next call
+        IdempotencyStore store = new IdempotencyStore(0, 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute(SCOPE, "key-1", "payload", runs::incrementAndGet);
+        store.execute(SCOPE, "key-1", "payload", runs::incrementAndGet);
+
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void oldestEntryIsEvictedWhenFull() {
+        IdempotencyStore store = new IdempotencyStore(60, 2, 5000);
+        AtomicInteger runs = new AtomicInteger();
+
+        store.execute(SCOPE, "a", "payload", runs::incrementAndGet);
+        store.execute(SCOPE, "b", "payload", runs::incrementAndGet);
+        store.execute(SCOPE, "c", "payload", runs::incrementAndGet);
+        assertThat(store.size()).isEqualTo(2);
+
+        // "c" is still stored, "a" was evicted and runs again
+        store.execute(SCOPE, "c", "payload", runs::incrementAndGet);
+        assertThat(runs.get()).isEqualTo(3);
+        store.execute(SCOPE, "a", "payload", runs::incrementAndGet);
+        assertThat(runs.get()).isEqualTo(4);
+    }
+
+    @Test
+    void runningRequestIsNotEvictedWhenFull() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60, 1, 5000);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() ->
+                store.execute(SCOPE, "slow", "payload", () -> {
+                    started.countDown();
+                    await(release);
+                    return runs.incrementAndGet();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Would evict "slow" if eviction ignored requests in flight
+        store.execute(SCOPE, "other", "payload", runs::incrementAndGet);
+        assertThat(store.size()).isEqualTo(2);
+
+        CompletableFuture<Integer> retry = CompletableFuture.supplyAsync(() ->
+                store.execute(SCOPE, "slow", "payload", runs::incrementAndGet));
+        Thread.sleep(100);
+        assertThat(retry).isNotDone();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(retry.get(5, TimeUnit.SECONDS));
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void duplicateWaitsForTheRunningRequest() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() ->
+                store.execute(SCOPE, "key-1", "payload", () -> {
+                    started.countDown();
+                    await(release);
+                    return runs.incrementAndGet();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute(SCOPE, "key-1", "payload", runs::incrementAndGet));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateGivesUpWaitingAfterTheTimeout() throws Exception {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+                store.execute(SCOPE, "key-1", "payload", () -> {
+                    started.countDown();
+                    await(release);
+                    return "done";
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> store.execute(SCOPE, "key-1", "payload", () -> "duplicate"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e ->
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThat(store.execute(SCOPE, "key-1", "payload", () -> "duplicate")).isEqualTo("done");
+    }
+
+    @Test
+    void blankKeyIsRejected() {
+        IdempotencyStore store = new IdempotencyStore(60, 100, 5000);
+
+        assertThatThrownBy(() -> store.execute(SCOPE, " ", "payload", () -> "result"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e ->
+                        assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
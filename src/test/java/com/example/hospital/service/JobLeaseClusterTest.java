@@ -0,0 +1,125 @@
+package com.example.hospital.service;
+
+import com.example.hospital.HospitalApplication;
+import com.example.hospital.model.Appointment;
+import com.example.hospital.model.AppointmentStatus;
+import com.example.hospital.model.Doctor;
+import com.example.hospital.model.Role;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.AppointmentRepository;
+import com.example.hospital.repository.DoctorRepository;
+import com.example.hospital.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two application contexts in one JVM share a named in-memory H2 database, standing in for
+// two nodes behind a load balancer with a common database
+class JobLeaseClusterTest {
+
+    private static final String JOB = AppointmentReminderService.LEASE_JOB;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @AfterEach
+    void tearDown() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void partitionsAreSplitBetweenNodesAndTakenOverOnShutdown() {
+        nodeA = startNode("node-a");
+        JobLeaseService leasesA = nodeA.getBean(JobLeaseService.class);
+        await(() -> leasesA.ownedPartitions(JOB).size() == 8);
+
+        nodeB = startNode("node-b");
+        JobLeaseService leasesB = nodeB.getBean(JobLeaseService.class);
+        await(() -> leasesA.ownedPartitions(JOB).size() == 4 && leasesB.ownedPartitions(JOB).size() == 4);
+
+        Set<Integer> all = new HashSet<>(leasesA.ownedPartitions(JOB));
+        all.addAll(leasesB.ownedPartitions(JOB));
+        assertThat(all).hasSize(8);
+
+        // Only the node that owns the doctor's partition schedules the reminder
+        Appointment appointment = bookInOneHourAndAHalf();
+        AppointmentReminderService remindersA = nodeA.getBean(AppointmentReminderService.class);
+        AppointmentReminderService remindersB = nodeB.getBean(AppointmentReminderService.class);
+        remindersA.refill();
+        remindersB.refill();
+
+        boolean ownedByA = leasesA.owns(JOB, appointment.getDoctor().getId());
+        assertThat(remindersA.pendingReminders()).isEqualTo(ownedByA ? 1 : 0);
+        assertThat(remindersB.pendingReminders()).isEqualTo(ownedByA ? 0 : 1);
+
+        // B releases its leases on shutdown and A takes everything back
+        nodeB.close();
+        nodeB = null;
+        await(() -> leasesA.ownedPartitions(JOB).size() == 8);
+        await(() -> remindersA.pendingReminders() == 1);
+    }
+
+    private ConfigurableApplicationContext startNode(String nodeId) {
+        // Passed as arguments so they override the test application.yaml
+        return new SpringApplicationBuilder(HospitalApplication.class).run(
+                "--spring.datasource.url=jdbc:h2:mem:cluster;DB_CLOSE_DELAY=-1",
+                "--server.port=0",
+                "--cluster.node-id=" + nodeId,
+                "--cluster.partitions=8",
+                "--cluster.lease-seconds=3",
+                "--cluster.renew-interval-ms=300"
+        );
+    }
+
+    private Appointment bookInOneHourAndAHalf() {
+        User patient = nodeA.getBean(UserRepository.class).save(User.builder()
+                .name("Clustered Patient")
+                .email("clustered.patient@test.com")
+                .password("unused")
+                .role(Role.PATIENT)
+                .build());
+        Doctor doctor = nodeA.getBean(DoctorRepository.class).save(Doctor.builder()
+                .name("Clustered Doctor")
+                .specialization("Cardiology")
+                .experience(5)
+                .available(true)
+                .build());
+
+        // The 1-hour reminder falls due in about 30 minutes, inside the reminder horizon
+        LocalDateTime at = LocalDateTime.now().plusMinutes(90).truncatedTo(ChronoUnit.MINUTES);
+        return nodeA.getBean(AppointmentRepository.class).save(Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(at.toLocalDate())
+                .appointmentTime(at.toLocalTime())
+                .status(AppointmentStatus.BOOKED)
+                .build());
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.Notification;
+import com.example.hospital.model.NotificationStatus;
+import com.example.hospital.model.NotificationType;
+import com.example.hospital.model.Role;
+import com.example.hospital.model.User;
+import com.example.hospital.repository.NotificationRepository;
+import com.example.hospital.repository.NotificationUnreadCounterRepository;
+import com.example.hospital.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+
+// The timer is pushed out of the way so the test decides when each flush runs
+@SpringBootTest(properties = "notification-buffer.flush-interval-ms=3600000")
+class NotificationWriteBufferTest {
+
+    private static final int NOTIFICATIONS = 5;
+
+    @Autowired
+    private NotificationWriteBuffer writeBuffer;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationUnreadCounterRepository counterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @MockitoSpyBean
+    private UnreadCounterService unreadCounterService;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("Buffered Patient")
+                .email("buffered@test.com")
+                .password("unused")
+                .role(Role.PATIENT)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll(notificationRepository.findAll().stream()
+                .filter(notification -> notification.getUser().getId().equals(user.getId()))
+                .toList());
+        counterRepository.deleteById(user.getId());
+        userRepository.delete(user);
+    }
+
+    @Test
+    void batchThatFailedOnceIsWrittenByTheNextFlush() {
+        // Fails after saveAll has handed out sequence ids, so the retry starts from dirty entities
+        doThrow(new IllegalStateException("database unavailable"))
+                .doCallRealMethod()
+                .when(unreadCounterService).recordInserted(anyList());
+
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            writeBuffer.add(Notification.builder()
+                    .user(user)
+                    .type(NotificationType.WELCOME)
+                    .subject("Welcome")
+                    .message("Message " + i)
+                    .sentAt(LocalDateTime.now())
+                    .status(NotificationStatus.SENT)
+                    .build());
+        }
+        long failuresBefore = writeBuffer.stats().getFailedFlushes();
+
+        writeBuffer.flush();
+
+        assertThat(writeBuffer.stats().getFailedFlushes()).isEqualTo(failuresBefore + 1);
+        assertThat(writeBuffer.stats().getBuffered()).isEqualTo(NOTIFICATIONS);
+        assertThat(notificationRepository.countByUserAndStatus(user, NotificationStatus.SENT)).isZero();
+
+        writeBuffer.flush();
+
+        assertThat(writeBuffer.stats().getFailedFlushes()).isEqualTo(failuresBefore + 1);
+        assertThat(writeBuffer.stats().getBuffered()).isZero();
+        assertThat(notificationRepository.countByUserAndStatus(user, NotificationStatus.SENT)).isEqualTo(NOTIFICATIONS);
+        assertThat(unreadCounterService.unreadCount(user.getId())).isEqualTo(NOTIFICATIONS);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.hospital.service;
+
+import com.example.hospital.model.DayOfWeek;
+import com.example.hospital.model.DoctorAvailability;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyScheduleTest {
+
+    @Test
+    void splitShiftContributesBothWindows() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                window(DayOfWeek.MONDAY, "09:00", "10:00", 30),
+                window(DayOfWeek.MONDAY, "14:00", "15:00", 30)
+        ));
+
+        assertThat(times(schedule.day(DayOfWeek.MONDAY))).containsExactly("09:00", "09:30", "14:00", "14:30");
+    }
+
+    @Test
+    void overlappingWindowsWithSameSlotLengthAreUnioned() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                window(DayOfWeek.TUESDAY, "09:30", "11:00", 30),
+                window(DayOfWeek.TUESDAY, "09:00", "10:00", 30)
+        ));
+
+        assertThat(times(schedule.day(DayOfWeek.TUESDAY))).containsExactly("09:00", "09:30", "10:00", "10:30");
+    }
+
+    @Test
+    void laterWindowWithDifferentSlotLengthIsClipped() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                window(DayOfWeek.WEDNESDAY, "09:00", "10:00", 30),
+                window(DayOfWeek.WEDNESDAY, "09:30", "10:30", 15)
+        ));
+
+        assertThat(times(schedule.day(DayOfWeek.WEDNESDAY))).containsExactly("09:00", "09:30", "10:00", "10:15");
+    }
+
+    @Test
+    void windowInsideAnEarlierOneWithDifferentSlotLengthIsDropped() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                window(DayOfWeek.THURSDAY, "09:00", "11:00", 30),
+                window(DayOfWeek.THURSDAY, "09:30", "10:00", 15)
+        ));
+
+        assertThat(times(schedule.day(DayOfWeek.THURSDAY))).containsExactly("09:00", "09:30", "10:00", "10:30");
+    }
+
+    @Test
+    void emptyWindowsAndUnscheduledDaysHaveNoSlots() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(
+                window(DayOfWeek.FRIDAY, "12:00", "11:00", 30),
+                window(DayOfWeek.FRIDAY, "09:00", "10:00", 0)
+        ));
+
+        assertThat(schedule.day(DayOfWeek.FRIDAY).isEmpty()).isTrue();
+        assertThat(schedule.day(DayOfWeek.SUNDAY).size()).isZero();
+    }
+
+    @Test
+    void javaTimeDayOfWeekMapsToTheSameDay() {
+        WeeklySchedule schedule = WeeklySchedule.compile(List.of(window(DayOfWeek.SATURDAY, "08:00", "09:00", 20)));
+
+        WeeklySchedule.DaySchedule day = schedule.day(java.time.DayOfWeek.SATURDAY);
+        assertThat(times(day)).containsExactly("08:00", "08:20", "08:40");
+        assertThat(day.minuteAt(1)).isEqualTo(8 * 60 + 20);
+    }
+
+    private static DoctorAvailability window(DayOfWeek day, String start, String end, int slotDuration) {
+        return DoctorAvailability.builder()
+                .dayOfWeek(day)
+                .startTime(LocalTime.parse(start))
+                .endTime(LocalTime.parse(end))
+                .slotDuration(slotDuration)
+                .build();
+    }
+
+    private static List<String> times(WeeklySchedule.DaySchedule day) {
+        List<String> times = new ArrayList<>();
+        for (int i = 0; i < day.size(); i++) {
+            times.add(day.timeAt(i).toString());
+        }
+        return times;
+    }
+}
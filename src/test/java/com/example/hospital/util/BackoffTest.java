@@ -0,0 +1,27 @@
+package com.example.hospital.util;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackoffTest {
+
+    private static final Duration BASE = Duration.ofSeconds(30);
+    private static final Duration MAX = Duration.ofMinutes(60);
+
+    @RepeatedTest(20)
+    void delayDoublesPerAttemptWithinHalfJitter() {
+        for (int attempts = 1; attempts <= 5; attempts++) {
+            long full = BASE.toMillis() << (attempts - 1);
+            assertThat(Backoff.equalJitter(BASE, MAX, attempts).toMillis()).isBetween(full / 2, full);
+        }
+    }
+
+    @Test
+    void delayIsCappedAtTheMaximum() {
+        assertThat(Backoff.equalJitter(BASE, MAX, 30).toMillis()).isBetween(MAX.toMillis() / 2, MAX.toMillis());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.hospital.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimerWheelTest {
+
+    private static final long TICK = 1000;
+    private static final int WHEEL_SIZE = 16;
+    private static final long START = 1_000_000;
+
+    @Test
+    void midTickDeadlineFiresOnTheFollowingTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.schedule("hold", START + 2500);
+
+        assertThat(wheel.advance(START + 2000)).isEmpty();
+        // Same tick as the deadline but still before it
+        assertThat(wheel.advance(START + 2400)).isEmpty();
+        assertThat(wheel.advance(START + 3000)).containsExactly("hold");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void midTickDeadlineIsNotParkedForARotation() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.advance(START + 5100);
+        // Scheduled in the tick that was just processed
+        wheel.schedule("hold", START + 5600);
+
+        assertThat(wheel.advance(START + 5900)).isEmpty();
+        assertThat(wheel.advance(START + 6000)).containsExactly("hold");
+    }
+
+    @Test
+    void alignedDeadlineFiresOnItsOwnTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.schedule("reminder", START + 3000);
+
+        assertThat(wheel.advance(START + 2999)).isEmpty();
+        assertThat(wheel.advance(START + 3000)).containsExactly("reminder");
+    }
+
+    @Test
+    void deadlineSeveralRotationsAwayWaitsForItsRotation() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        long deadline = START + 2 * WHEEL_SIZE * TICK + 4500;
+        wheel.schedule("later", deadline);
+
+        for (long now = START + TICK; now < deadline; now += TICK) {
+            assertThat(wheel.advance(now)).isEmpty();
+        }
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(deadline - deadline % TICK + TICK)).containsExactly("later");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void longGapBetweenAdvancesReturnsEverythingDue() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.schedule("a", START + 1500);
+        wheel.schedule("b", START + 7000);
+        wheel.schedule("c", START + 3 * WHEEL_SIZE * TICK);
+
+        assertThat(wheel.advance(START + 2 * WHEEL_SIZE * TICK)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START + 3 * WHEEL_SIZE * TICK)).containsExactly("c");
+    }
+
+    @Test
+    void overdueItemFiresOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, WHEEL_SIZE, START);
+        wheel.advance(START + 5000);
+        wheel.schedule("late", START + 1000);
+
+        assertThat(wheel.advance(START + 6000)).containsExactly("late");
+    }
+
+    @Test
+    void rejectsWheelSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new TimerWheel<String>(TICK, 10, START))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}